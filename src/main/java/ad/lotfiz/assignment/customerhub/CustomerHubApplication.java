@@ -2,12 +2,18 @@ package ad.lotfiz.assignment.customerhub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class CustomerHubApplication {
 
+    // steps of the startup kept for the actuator startup endpoint, a few per bean
+    private static final int STARTUP_STEPS = 8192;
+
     public static void main(String[] args) {
-        SpringApplication.run(CustomerHubApplication.class, args);
+        SpringApplication application = new SpringApplication(CustomerHubApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
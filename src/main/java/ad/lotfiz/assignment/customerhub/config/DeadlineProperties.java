@@ -0,0 +1,17 @@
+package ad.lotfiz.assignment.customerhub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties("customer-hub.deadline")
+public record DeadlineProperties(@DefaultValue("5s") Duration defaultTimeout,
+                                 @DefaultValue Map<String, Duration> timeouts,
+                                 @DefaultValue("1s") Duration retryAfter) {
+
+    public Duration timeoutOf(String endpoint) {
+        return timeouts.getOrDefault(endpoint, defaultTimeout);
+    }
+}
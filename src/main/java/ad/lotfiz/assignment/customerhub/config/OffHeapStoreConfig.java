@@ -0,0 +1,23 @@
+package ad.lotfiz.assignment.customerhub.config;
+
+import ad.lotfiz.assignment.customerhub.repository.offheap.OffHeapCustomerStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// size -XX:MaxDirectMemorySize for about 200 bytes per customer
+@Configuration
+@Profile("offheap")
+public class OffHeapStoreConfig {
+
+    @Bean
+    public OffHeapCustomerStore offHeapCustomerStore(@Value("${customer-hub.offheap.expected-customers:100000}") int expectedCustomers,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        OffHeapCustomerStore store = new OffHeapCustomerStore(expectedCustomers);
+        meterRegistry.ifAvailable(store::bindTo);
+        return store;
+    }
+}
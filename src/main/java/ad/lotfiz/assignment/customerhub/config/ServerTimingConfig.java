@@ -0,0 +1,66 @@
+package ad.lotfiz.assignment.customerhub.config;
+
+import ad.lotfiz.assignment.customerhub.controller.ServerTimingFilter;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerPageCache;
+import ad.lotfiz.assignment.customerhub.service.timing.RequestTiming;
+import ad.lotfiz.assignment.customerhub.service.timing.RequestTimingContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(name = "customer-hub.server-timing.enabled", havingValue = "true")
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(MeterRegistry meterRegistry, ObjectProvider<CustomerPageCache> pageCache,
+                                                                        @Value("${customer-hub.streaming.enabled:false}") boolean streamingEnabled) {
+        // list pages the interceptors may stream or serve from the page cache are not buffered
+        Set<String> unbufferedPaths = streamingEnabled || pageCache.getIfAvailable() != null
+                ? Set.of("/customers", "/customers/find")
+                : Set.of();
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(meterRegistry, unbufferedPaths));
+        registration.addUrlPatterns("/customers", "/customers/*");
+        return registration;
+    }
+
+    // replaces the JSON converter of Spring Boot
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper);
+    }
+
+    static class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        TimedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+            super(objectMapper);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            Optional<RequestTiming> timing = RequestTimingContext.current();
+            if (timing.isEmpty() || !timing.get().json().start()) {
+                super.writeInternal(object, type, outputMessage);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                timing.get().json().stop(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ad.lotfiz.assignment.customerhub.config;
+
+import ad.lotfiz.assignment.customerhub.controller.CachedCustomerPageInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.CachedCustomerResponseInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.ConcurrencyLimitInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.CustomerController;
+import ad.lotfiz.assignment.customerhub.controller.DeadlineInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.ExportDownloadInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.HotKeyInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.StreamingCustomerListInterceptor;
+import ad.lotfiz.assignment.customerhub.controller.limit.AdaptiveConcurrencyLimiter;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerPageCache;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache;
+import ad.lotfiz.assignment.customerhub.service.export.CustomerExportService;
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HotKeyTracker;
+import ad.lotfiz.assignment.customerhub.service.metrics.TimedMethod;
+import ad.lotfiz.assignment.customerhub.service.streaming.CustomerJsonStreamWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String EXPORT_DOWNLOAD = "/customers/exports/*/file";
+
+    private final CustomerResponseCache customerResponseCache;
+    private final ObjectProvider<CustomerPageCache> customerPageCache;
+    private final ObjectProvider<CustomerJsonStreamWriter> customerJsonStreamWriter;
+    private final ObjectProvider<CustomerExportService> customerExportService;
+    private final ObjectProvider<HotKeyTracker> hotKeyTracker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final DeadlineProperties deadlineProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean streamingEnabled;
+    private final Duration retryAfter;
+
+    public WebConfig(CustomerResponseCache customerResponseCache,
+                     ObjectProvider<CustomerPageCache> customerPageCache,
+                     ObjectProvider<CustomerJsonStreamWriter> customerJsonStreamWriter,
+                     ObjectProvider<CustomerExportService> customerExportService,
+                     ObjectProvider<HotKeyTracker> hotKeyTracker,
+                     AdaptiveConcurrencyLimiter concurrencyLimiter,
+                     DeadlineProperties deadlineProperties,
+                     ObjectProvider<MeterRegistry> meterRegistry,
+                     @Value("${customer-hub.streaming.enabled:false}") boolean streamingEnabled,
+                     @Value("${customer-hub.limiter.retry-after:1s}") Duration retryAfter) {
+        this.customerResponseCache = customerResponseCache;
+        this.customerPageCache = customerPageCache;
+        this.customerJsonStreamWriter = customerJsonStreamWriter;
+        this.customerExportService = customerExportService;
+        this.hotKeyTracker = hotKeyTracker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+        this.streamingEnabled = streamingEnabled;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // downloads take as long as the client reads, they would skew the latency samples of the limiter
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiter, retryAfter)).addPathPatterns("/customers/**")
+                .excludePathPatterns(EXPORT_DOWNLOAD);
+        registry.addInterceptor(new DeadlineInterceptor(deadlineProperties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)))
+                .addPathPatterns("/customers/**")
+                .excludePathPatterns(EXPORT_DOWNLOAD);
+        hotKeyTracker.ifAvailable(tracker -> registry.addInterceptor(new HotKeyInterceptor(tracker)).addPathPatterns("/customers/*"));
+        // shares the getCustomer timer of the controller
+        TimedMethod getCustomerTime = new TimedMethod(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), CustomerController.class, "getCustomer");
+        registry.addInterceptor(new CachedCustomerResponseInterceptor(customerResponseCache, getCustomerTime)).addPathPatterns("/customers/*");
+        customerExportService.ifAvailable(exportService ->
+                registry.addInterceptor(new ExportDownloadInterceptor(exportService)).addPathPatterns(EXPORT_DOWNLOAD));
+        customerPageCache.ifAvailable(pageCache -> customerJsonStreamWriter.ifAvailable(writer ->
+                registry.addInterceptor(new CachedCustomerPageInterceptor(pageCache, writer)).addPathPatterns("/customers", "/customers/find")));
+        if (streamingEnabled) {
+            registry.addInterceptor(new StreamingCustomerListInterceptor(customerJsonStreamWriter.getObject()))
+                    .addPathPatterns("/customers", "/customers/find");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ad.lotfiz.assignment.customerhub.config;
+
+import ad.lotfiz.assignment.customerhub.repository.WorkloadPools;
+import ad.lotfiz.assignment.customerhub.repository.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// a connection pool per workload, so exports and bulk writes cannot starve the interactive reads
+@Configuration
+@EnableConfigurationProperties(WorkloadPoolProperties.class)
+public class WorkloadDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public WorkloadPools workloadPools(DataSourceProperties dataSourceProperties,
+                                       ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                       WorkloadPoolProperties poolProperties,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        WorkloadPools pools = new WorkloadPools(workload -> {
+            WorkloadPoolProperties.Pool settings = poolProperties.poolOf(workload);
+            HikariDataSource pool = new HikariDataSource();
+            if (details != null) {
+                pool.setJdbcUrl(details.getJdbcUrl());
+                pool.setUsername(details.getUsername());
+                pool.setPassword(details.getPassword());
+                pool.setDriverClassName(details.getDriverClassName());
+            } else {
+                pool.setJdbcUrl(dataSourceProperties.determineUrl());
+                pool.setUsername(dataSourceProperties.determineUsername());
+                pool.setPassword(dataSourceProperties.determinePassword());
+                pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            }
+            pool.setMaximumPoolSize(settings.maximumPoolSize());
+            pool.setMinimumIdle(settings.minimumIdle());
+            pool.setConnectionTimeout(settings.connectionTimeout().toMillis());
+            return pool;
+        });
+        meterRegistry.ifAvailable(pools::bindTo);
+        return pools;
+    }
+
+    // the only DataSource bean, wrapped once by DeadlineConfig
+    @Bean
+    public DataSource dataSource(WorkloadPools workloadPools) {
+        return new WorkloadRoutingDataSource(workloadPools.pools());
+    }
+}
@@ -0,0 +1,23 @@
+package ad.lotfiz.assignment.customerhub.config;
+
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties("customer-hub.datasource")
+public record WorkloadPoolProperties(@DefaultValue Map<Workload, Pool> pools) {
+
+    private static final Pool DEFAULT_POOL = new Pool(10, 2, Duration.ofSeconds(30));
+
+    public Pool poolOf(Workload workload) {
+        return pools.getOrDefault(workload, DEFAULT_POOL);
+    }
+
+    public record Pool(@DefaultValue("10") int maximumPoolSize,
+                       @DefaultValue("2") int minimumIdle,
+                       @DefaultValue("30s") Duration connectionTimeout) {
+    }
+}
@@ -0,0 +1,82 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.model.NameMatchMode;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerPageCache;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerPageCache.PageKey;
+import ad.lotfiz.assignment.customerhub.service.streaming.CustomerJsonStreamWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+// sparse fieldsets, fuzzy matches, binary encodings and pages too large to cache go on to the streaming interceptor or the controller
+@Slf4j
+@RequiredArgsConstructor
+public class CachedCustomerPageInterceptor implements HandlerInterceptor {
+
+    private static final String LIST_CUSTOMERS = "listCustomers";
+    private static final String FIND_CUSTOMER = "findCustomer";
+    private static final int DEFAULT_PAGE = 0;
+    private static final int DEFAULT_SIZE = 10;
+
+    private final CustomerPageCache customerPageCache;
+    private final CustomerJsonStreamWriter customerJsonStreamWriter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || request.getParameter("fields") != null
+                || !InterceptedRequests.acceptsJson(request)) {
+            return true;
+        }
+        String operation = handlerMethod.getMethod().getName();
+        if (!LIST_CUSTOMERS.equals(operation) && !FIND_CUSTOMER.equals(operation)) {
+            return true;
+        }
+        String mode = request.getParameter("mode");
+        if (mode != null && !NameMatchMode.CONTAINS.getName().equals(mode)) {
+            return true;
+        }
+        Integer page = InterceptedRequests.intParameter(request, "page", DEFAULT_PAGE);
+        Integer size = InterceptedRequests.intParameter(request, "size", DEFAULT_SIZE);
+        if (page == null || page < 0 || size == null || size < 1 || !customerPageCache.isCacheable(size)) {
+            return true;
+        }
+        // the empty and absent names are the same query
+        String firstName = Optional.ofNullable(request.getParameter("firstName")).orElse("");
+        String lastName = Optional.ofNullable(request.getParameter("lastName")).orElse("");
+        List<String> parameters = LIST_CUSTOMERS.equals(operation) ? List.of() : Arrays.asList(firstName, lastName);
+        PageKey key = customerPageCache.key(operation, parameters, page, size);
+
+        byte[] body = customerPageCache.get(key).orElse(null);
+        if (body == null) {
+            Pageable paging = PageRequest.of(page, size);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (LIST_CUSTOMERS.equals(operation)) {
+                customerJsonStreamWriter.writeList(paging, out);
+            } else {
+                customerJsonStreamWriter.writeFindByName(firstName, lastName, paging, out);
+            }
+            body = out.toByteArray();
+            customerPageCache.put(key, body);
+        } else {
+            log.debug("Page {} answered from the cache", key);
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return false;
+    }
+}
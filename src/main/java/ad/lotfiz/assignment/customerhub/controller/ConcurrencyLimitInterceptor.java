@@ -0,0 +1,43 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.controller.limit.AdaptiveConcurrencyLimiter;
+import ad.lotfiz.assignment.customerhub.controller.limit.RequestPriority;
+import ad.lotfiz.assignment.customerhub.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+// the first interceptor, shed requests get their 503 before any other work is done
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".admittedAt";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration retryAfter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RequestPriority priority = RequestPriority.forOperation(handlerMethod.getMethod().getName());
+        if (!limiter.tryAcquire(priority)) {
+            throw new ServiceOverloadedException("The service is overloaded, retry later", retryAfter);
+        }
+        request.setAttribute(ADMITTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED_AT) instanceof Long admittedAt) {
+            request.removeAttribute(ADMITTED_AT);
+            limiter.release(System.nanoTime() - admittedAt);
+        }
+    }
+}
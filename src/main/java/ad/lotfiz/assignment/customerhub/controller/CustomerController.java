@@ -1,79 +1,294 @@
 package ad.lotfiz.assignment.customerhub.controller;
 
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchCriteria;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchOrder;
+import ad.lotfiz.assignment.customerhub.model.NameMatchMode;
 import ad.lotfiz.assignment.customerhub.service.CustomerService;
-import io.micrometer.core.annotation.Timed;
-import lombok.RequiredArgsConstructor;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache.CachedResponse;
+import ad.lotfiz.assignment.customerhub.service.export.CustomerExportService;
+import ad.lotfiz.assignment.customerhub.service.export.ExportCompression;
+import ad.lotfiz.assignment.customerhub.service.export.ExportFormat;
+import ad.lotfiz.assignment.customerhub.service.export.ExportJob;
+import ad.lotfiz.assignment.customerhub.service.idempotency.IdempotencyService;
+import ad.lotfiz.assignment.customerhub.service.metrics.TimedMethod;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import nl.customerhub.api.v1.CustomerCrudApi;
+import nl.customerhub.api.v1.model.CustomerExport;
+import nl.customerhub.api.v1.model.CustomerExportRequest;
 import nl.customerhub.api.v1.model.CustomerListResponse;
 import nl.customerhub.api.v1.model.CustomerRequest;
 import nl.customerhub.api.v1.model.CustomerResponse;
 import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import nl.customerhub.api.v1.model.CustomerUpsertResult;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
-@RequiredArgsConstructor
 @Slf4j
 @Validated
 public class CustomerController implements CustomerCrudApi {
 
     private final CustomerService customerService;
+    private final CustomerResponseCache customerResponseCache;
+    private final IdempotencyService idempotencyService;
+    private final CustomerExportService customerExportService;
+    private final TimedMethod createNewCustomerTime;
+    private final TimedMethod deleteCustomerTime;
+    private final TimedMethod getCustomerTime;
+    private final TimedMethod listCustomersTime;
+    private final TimedMethod updateCustomerTime;
+    private final TimedMethod upsertCustomerByNameTime;
+    private final TimedMethod upsertCustomersByNameTime;
+    private final TimedMethod findCustomerTime;
+    private final TimedMethod findCustomersByCriteriaTime;
+    private final TimedMethod findCustomersByEmailTime;
+    private final TimedMethod exportCustomersTime;
+    private final TimedMethod getCustomerExportTime;
+    private final TimedMethod exportCustomersDownloadTime;
+
+    public CustomerController(CustomerService customerService, CustomerResponseCache customerResponseCache,
+                              IdempotencyService idempotencyService, CustomerExportService customerExportService,
+                              MeterRegistry meterRegistry) {
+        this.customerService = customerService;
+        this.customerResponseCache = customerResponseCache;
+        this.idempotencyService = idempotencyService;
+        this.customerExportService = customerExportService;
+        this.createNewCustomerTime = new TimedMethod(meterRegistry, CustomerController.class, "createNewCustomer");
+        this.deleteCustomerTime = new TimedMethod(meterRegistry, CustomerController.class, "deleteCustomer");
+        this.getCustomerTime = new TimedMethod(meterRegistry, CustomerController.class, "getCustomer");
+        this.listCustomersTime = new TimedMethod(meterRegistry, CustomerController.class, "listCustomers");
+        this.updateCustomerTime = new TimedMethod(meterRegistry, CustomerController.class, "updateCustomer");
+        this.upsertCustomerByNameTime = new TimedMethod(meterRegistry, CustomerController.class, "upsertCustomerByName");
+        this.upsertCustomersByNameTime = new TimedMethod(meterRegistry, CustomerController.class, "upsertCustomersByName");
+        this.findCustomerTime = new TimedMethod(meterRegistry, CustomerController.class, "findCustomer");
+        this.findCustomersByCriteriaTime = new TimedMethod(meterRegistry, CustomerController.class, "findCustomersByCriteria");
+        this.findCustomersByEmailTime = new TimedMethod(meterRegistry, CustomerController.class, "findCustomersByEmail");
+        this.exportCustomersTime = new TimedMethod(meterRegistry, CustomerController.class, "exportCustomers");
+        this.getCustomerExportTime = new TimedMethod(meterRegistry, CustomerController.class, "getCustomerExport");
+        this.exportCustomersDownloadTime = new TimedMethod(meterRegistry, CustomerController.class, "exportCustomersDownload");
+    }
 
-    @Timed
     @Override
-    public ResponseEntity<CustomerResponse> createNewCustomer(CustomerRequest customerRequest) {
-        log.info("Request to create customer {}", customerRequest);
-        CustomerResponse response = customerService.createNewCustomer(customerRequest);
-        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(response.getId()).toUri();
-        return ResponseEntity.created(location).body(response);
+    public ResponseEntity<CustomerResponse> createNewCustomer(CustomerRequest customerRequest, String idempotencyKey) {
+        return createNewCustomerTime.record(() -> create(customerRequest, idempotencyKey));
     }
 
-    @Timed
     @Override
     public ResponseEntity<Void> deleteCustomer(String customerId) {
-        log.info("Request to delete a customer {}", customerId);
-        customerService.delete(customerId);
-        return ResponseEntity.noContent().build();
+        return deleteCustomerTime.record(() -> {
+            log.info("Request to delete a customer {}", customerId);
+            customerService.delete(customerId);
+            return ResponseEntity.noContent().build();
+        });
     }
 
-    @Timed
     @Override
-    public ResponseEntity<CustomerResponse> getCustomer(String customerId) {
-        log.info("Request to get details of a customer {}", customerId);
-        CustomerResponse customerResponse = customerService.fetchCustomer(customerId);
-        return ResponseEntity.ok(customerResponse);
+    public ResponseEntity<CustomerResponse> getCustomer(String customerId, List<String> fields) {
+        return getCustomerTime.record(() -> get(customerId, fields));
     }
 
-    @Timed
     @Override
-    public ResponseEntity<CustomerListResponse> listCustomers(Integer page, Integer size) {
-        Pageable paging = PageRequest.of(page, size);
-        log.info("Request to get list of customers {}", paging);
-        return ResponseEntity.ok(customerService.list(paging));
+    public ResponseEntity<CustomerListResponse> listCustomers(Integer page, Integer size, List<String> fields) {
+        return listCustomersTime.record(() -> {
+            Pageable paging = PageRequest.of(page, size);
+            log.info("Request to get list of customers {}", paging);
+            return ResponseEntity.ok(customerService.list(paging, CustomerField.parse(fields)));
+        });
     }
 
-    @Timed
     @Override
     public ResponseEntity<CustomerResponse> updateCustomer(String customerId, CustomerUpdateRequest updateRequest) {
-        log.info("updating the customer id {} with {}", customerId, updateRequest);
-        CustomerResponse response = customerService.update(customerId, updateRequest);
-        return ResponseEntity.ok(response);
+        return updateCustomerTime.record(() -> {
+            log.info("updating the customer id {} with {}", customerId, updateRequest);
+            return ResponseEntity.ok(customerService.update(customerId, updateRequest));
+        });
+    }
+
+    @Override
+    public ResponseEntity<CustomerResponse> upsertCustomerByName(CustomerRequest customerRequest) {
+        return upsertCustomerByNameTime.record(() -> {
+            log.info("upserting the customer {}", customerRequest);
+            CustomerUpsertResult result = customerService.upsertByName(customerRequest);
+            return result.getResult() == CustomerUpsertResult.ResultEnum.CREATED
+                    ? ResponseEntity.created(location(result.getCustomer())).body(result.getCustomer())
+                    : ResponseEntity.ok(result.getCustomer());
+        });
+    }
+
+    @Override
+    public ResponseEntity<List<CustomerUpsertResult>> upsertCustomersByName(List<CustomerRequest> customerRequests) {
+        return upsertCustomersByNameTime.record(() -> {
+            log.info("upserting a batch of {} customers", customerRequests.size());
+            return ResponseEntity.ok(customerService.upsertByName(customerRequests));
+        });
     }
 
-    @Timed
     @Override
-    public ResponseEntity<CustomerListResponse> findCustomer(String firstName, String lastName, Integer page, Integer size) {
-        Pageable paging = PageRequest.of(page, size);
+    public ResponseEntity<CustomerListResponse> findCustomer(String firstName, String lastName, String mode, Integer page, Integer size, List<String> fields) {
+        return findCustomerTime.record(() -> {
+            Pageable paging = PageRequest.of(page, size);
+            NameMatchMode matchMode = NameMatchMode.fromName(mode);
+
+            log.info("find a list of customer firstName: {} lastName {} ({}) at page:{}", firstName, lastName, matchMode, paging);
+            if (matchMode == NameMatchMode.FUZZY) {
+                // validated here, the sparse fieldset is applied when the response is written
+                CustomerField.parse(fields);
+                return ResponseEntity.ok(customerService.findByNameFuzzy(firstName, lastName, paging));
+            }
+            return ResponseEntity.ok(customerService.findByName(firstName, lastName, paging, CustomerField.parse(fields)));
+        });
+    }
 
-        log.info("find a list of customer firstName: {} lastName {} at page:{}", firstName, lastName, paging);
-        var response = customerService.findByName(firstName, lastName, paging);
-        return ResponseEntity.ok(response);
+    @Override
+    public ResponseEntity<CustomerListResponse> findCustomersByCriteria(String firstName, String lastName, Integer minAge, Integer maxAge,
+                                                                        String emailDomain, OffsetDateTime createdFrom, OffsetDateTime createdTo,
+                                                                        OffsetDateTime updatedFrom, OffsetDateTime updatedTo, String sort,
+                                                                        Integer page, Integer size, List<String> fields) {
+        return findCustomersByCriteriaTime.record(() -> {
+            CustomerSearchCriteria criteria = CustomerSearchCriteria.builder()
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .minAge(minAge)
+                    .maxAge(maxAge)
+                    .emailDomain(emailDomain)
+                    .createdFrom(createdFrom)
+                    .createdTo(createdTo)
+                    .updatedFrom(updatedFrom)
+                    .updatedTo(updatedTo)
+                    .build();
+            Pageable paging = PageRequest.of(page, size);
+            log.info("search customers {} ordered by {} at page:{}", criteria, sort, paging);
+            return ResponseEntity.ok(customerService.search(criteria, CustomerSearchOrder.fromName(sort), paging, CustomerField.parse(fields)));
+        });
+    }
+
+    @Override
+    public ResponseEntity<List<CustomerResponse>> findCustomersByEmail(String email) {
+        return findCustomersByEmailTime.record(() -> {
+            log.info("find customers by email {}", email);
+            // the matches are full responses, cached so that following GET /customers/{id} are hits
+            long cacheGeneration = customerResponseCache.generation();
+            List<CustomerResponse> customerResponses = customerService.findByEmail(email);
+            customerResponses.forEach(customerResponse -> customerResponseCache.put(cacheGeneration, customerResponse));
+            return ResponseEntity.ok(customerResponses);
+        });
+    }
+
+    @Override
+    public ResponseEntity<CustomerExport> exportCustomers(CustomerExportRequest exportRequest) {
+        return exportCustomersTime.record(() -> {
+            CustomerExportRequest request = exportRequest != null ? exportRequest : new CustomerExportRequest();
+            log.info("Request to export customers {}", request);
+            ExportJob job = customerExportService.start(ExportFormat.valueOf(request.getFormat().name()),
+                    ExportCompression.valueOf(request.getCompression().name()));
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri();
+            return ResponseEntity.accepted().location(location).body(toCustomerExport(job));
+        });
+    }
+
+    @Override
+    public ResponseEntity<CustomerExport> getCustomerExport(String exportId) {
+        return getCustomerExportTime.record(() -> {
+            log.info("Request to get the export {}", exportId);
+            return ResponseEntity.ok(toCustomerExport(customerExportService.find(exportId)));
+        });
+    }
+
+    @Override
+    public ResponseEntity<Resource> exportCustomersDownload(String exportId, String range) {
+        return exportCustomersDownloadTime.record(() -> {
+            // single ranges are served by the ExportDownloadInterceptor, the resource handles the multipart ranges
+            log.info("Request to download the export {} (range {})", exportId, range);
+            ExportJob job = customerExportService.findCompleted(exportId);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(job.getContentType()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(job.getFileName()).build().toString())
+                    .body(new FileSystemResource(job.getFile()));
+        });
+    }
+
+    private ResponseEntity<CustomerResponse> create(CustomerRequest customerRequest, String idempotencyKey) {
+        log.info("Request to create customer {}", customerRequest);
+        if (idempotencyKey != null) {
+            Optional<CustomerResponse> replayed = idempotencyService.reserve(idempotencyKey, customerRequest, CustomerResponse.class);
+            if (replayed.isPresent()) {
+                return created(replayed.get());
+            }
+        }
+        CustomerResponse response;
+        try {
+            response = customerService.createNewCustomer(customerRequest);
+        } catch (RuntimeException e) {
+            if (idempotencyKey != null) {
+                idempotencyService.release(idempotencyKey);
+            }
+            throw e;
+        }
+        if (idempotencyKey != null) {
+            idempotencyService.remember(idempotencyKey, customerRequest, response);
+        }
+        return created(response);
+    }
+
+    private ResponseEntity<CustomerResponse> get(String customerId, List<String> fields) {
+        log.info("Request to get details of a customer {}", customerId);
+        Set<CustomerField> customerFields = CustomerField.parse(fields);
+        // hits are served by the CachedCustomerResponseInterceptor, full responses are cached on a miss
+        long cacheGeneration = customerResponseCache.generation();
+        CustomerResponse customerResponse = customerService.fetchCustomer(customerId, customerFields);
+        if (customerFields.containsAll(CustomerField.all())) {
+            Optional<String> etag = customerResponseCache.put(cacheGeneration, customerResponse).map(CachedResponse::etag);
+            if (etag.isPresent()) {
+                return ResponseEntity.ok().eTag(etag.get()).body(customerResponse);
+            }
+        }
+        return ResponseEntity.ok(customerResponse);
+    }
+
+    private static URI location(CustomerResponse customer) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path("/customers/{id}").buildAndExpand(customer.getId()).toUri();
+    }
+
+    private static CustomerExport toCustomerExport(ExportJob job) {
+        CustomerExport export = new CustomerExport()
+                .id(job.getId().toString())
+                .status(CustomerExport.StatusEnum.valueOf(job.getStatus().name()))
+                .format(CustomerExport.FormatEnum.valueOf(job.getFormat().name()))
+                .compression(CustomerExport.CompressionEnum.valueOf(job.getCompression().name()))
+                .rowsWritten(job.getRowsWritten())
+                .rowsTotal(job.getRowsTotal().orElse(null))
+                .progress(job.getProgress().orElse(null))
+                .fileSize(job.getFileSize().orElse(null))
+                .created(job.getCreated())
+                .completed(job.getCompleted().orElse(null))
+                .error(job.getError().orElse(null));
+        if (job.getStatus() == ExportJob.Status.COMPLETED) {
+            export.downloadUrl(ServletUriComponentsBuilder.fromCurrentContextPath().path("/customers/exports/{id}/file")
+                    .buildAndExpand(job.getId()).toUriString());
+        }
+        return export;
+    }
+
+    private static ResponseEntity<CustomerResponse> created(CustomerResponse response) {
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(response.getId()).toUri();
+        return ResponseEntity.created(location).body(response);
     }
 }
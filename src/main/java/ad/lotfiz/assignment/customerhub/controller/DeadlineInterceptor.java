@@ -0,0 +1,57 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.config.DeadlineProperties;
+import ad.lotfiz.assignment.customerhub.service.deadline.Deadline;
+import ad.lotfiz.assignment.customerhub.service.deadline.DeadlineContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+@RequiredArgsConstructor
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final DeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            String endpoint = handlerMethod.getMethod().getName();
+            Duration timeout = deadlineProperties.timeoutOf(endpoint);
+            Duration requested = requestedTimeout(request);
+            if (requested != null && requested.compareTo(timeout) < 0) {
+                timeout = requested;
+            }
+            DeadlineContext.set(Deadline.after(endpoint, timeout));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DeadlineContext.current()
+                .filter(Deadline::isExpired)
+                .ifPresent(deadline -> meterRegistry.counter("customerhub.deadline.expired", "endpoint", deadline.endpoint()).increment());
+        DeadlineContext.clear();
+    }
+
+    private static Duration requestedTimeout(HttpServletRequest request) {
+        String value = request.getHeader(REQUEST_TIMEOUT_HEADER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // an invalid header does not fail the request, the configured budget applies
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.exception.ExportNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.ExportNotReadyException;
+import ad.lotfiz.assignment.customerhub.service.export.CustomerExportService;
+import ad.lotfiz.assignment.customerhub.service.export.ExportJob;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+// sendfile on Tomcat; unknown or unfinished exports and multiple or unsatisfiable ranges go to the controller
+@Slf4j
+@RequiredArgsConstructor
+public class ExportDownloadInterceptor implements HandlerInterceptor {
+
+    private static final String DOWNLOAD = "exportCustomersDownload";
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final CustomerExportService customerExportService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !DOWNLOAD.equals(handlerMethod.getMethod().getName())) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        ExportJob job;
+        try {
+            job = customerExportService.findCompleted(pathVariables.get("exportId"));
+        } catch (ExportNotFoundException | ExportNotReadyException e) {
+            return true;
+        }
+        long length = Files.size(job.getFile());
+        long[] range = range(request.getHeader(HttpHeaders.RANGE), length);
+        if (range == null) {
+            return true;
+        }
+        long start = range[0];
+        long end = range[1];
+        boolean partial = start > 0 || end < length;
+
+        response.setStatus(partial ? HttpServletResponse.SC_PARTIAL_CONTENT : HttpServletResponse.SC_OK);
+        response.setContentType(job.getContentType());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(job.getFileName()).build().toString());
+        response.setContentLengthLong(end - start);
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        log.info("Request to download {} bytes {}-{} of export {}", length, start, end, job.getId());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, job.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return false;
+        }
+        try (FileChannel file = FileChannel.open(job.getFile(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += file.transferTo(position, end - position, out);
+            }
+        }
+        return false;
+    }
+
+    // start (inclusive) and end (exclusive), the whole file without a range, null when it is not a single satisfiable range
+    static long[] range(String header, long length) {
+        if (header == null) {
+            return new long[]{0, length};
+        }
+        if (!header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // suffix range, the last n bytes
+                long suffix = Long.parseLong(last);
+                return suffix <= 0 || length == 0 ? null : new long[]{Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length : Math.min(length, Long.parseLong(last) + 1);
+            return start < 0 || start >= length || end <= start ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HotKeyTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// runs before the cache interceptors, so that cache hits are counted too
+@RequiredArgsConstructor
+public class HotKeyInterceptor implements HandlerInterceptor {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        switch (handlerMethod.getMethod().getName()) {
+            case "getCustomer" -> InterceptedRequests.customerId(request).ifPresent(hotKeyTracker::read);
+            case "updateCustomer" -> InterceptedRequests.customerId(request).ifPresent(hotKeyTracker::write);
+            case "findCustomer" -> hotKeyTracker.search(request.getParameter("firstName"), request.getParameter("lastName"));
+            default -> {
+            }
+        }
+        return true;
+    }
+}
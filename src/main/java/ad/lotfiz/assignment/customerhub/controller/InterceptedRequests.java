@@ -0,0 +1,54 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// what the interceptors read from a request before the controller binds it
+final class InterceptedRequests {
+
+    private static final String CUSTOMER_ID = "customerId";
+
+    private InterceptedRequests() {
+    }
+
+    // the first listed media type decides, clients asking for a binary encoding are not served JSON
+    static boolean acceptsJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        return !mediaTypes.isEmpty() && mediaTypes.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Optional<UUID> customerId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        try {
+            return Optional.ofNullable(variables).map(vars -> vars.get(CUSTOMER_ID)).map(UUID::fromString);
+        } catch (IllegalArgumentException e) {
+            // invalid ids are reported by the controller
+            return Optional.empty();
+        }
+    }
+
+    // null when the value is not a number
+    static Integer intParameter(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
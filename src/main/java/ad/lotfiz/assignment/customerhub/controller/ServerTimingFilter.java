@@ -0,0 +1,149 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.service.timing.RequestTiming;
+import ad.lotfiz.assignment.customerhub.service.timing.RequestTimingContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// the header has to precede the body, so responses are buffered; list pages that may be streamed or come from the page cache are not
+@RequiredArgsConstructor
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final String EXPORT_DOWNLOAD = "/customers/exports/*/file";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> unbufferedPaths;
+    // by uri pattern, of which there are only as many as handler mappings
+    private final ConcurrentMap<String, UriMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PATH_MATCHER.match(EXPORT_DOWNLOAD, path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = new RequestTiming();
+        boolean buffered = !(HttpMethod.GET.matches(request.getMethod()) && unbufferedPaths.contains(path(request)));
+        HttpServletResponse timed = buffered ? new ContentCachingResponseWrapper(response) : new TimingOnCommitResponse(response, timing);
+        RequestTimingContext.set(timing);
+        try {
+            filterChain.doFilter(request, timed);
+        } finally {
+            RequestTimingContext.clear();
+            long total = timing.elapsedNanos();
+            if (buffered) {
+                timed.setHeader(SERVER_TIMING_HEADER, timing.toServerTiming(total));
+                ((ContentCachingResponseWrapper) timed).copyBodyToResponse();
+            } else {
+                ((TimingOnCommitResponse) timed).setTimingHeader();
+            }
+            record(request, timing, total);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTiming timing, long total) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        UriMeters uriMeters = meters.computeIfAbsent(uri, this::register);
+        uriMeters.db().record(timing.repository().nanos(), TimeUnit.NANOSECONDS);
+        uriMeters.mapping().record(timing.mapper().nanos(), TimeUnit.NANOSECONDS);
+        uriMeters.json().record(timing.json().nanos(), TimeUnit.NANOSECONDS);
+        uriMeters.total().record(total, TimeUnit.NANOSECONDS);
+        uriMeters.dbCalls().record(timing.repository().calls());
+    }
+
+    private UriMeters register(String uri) {
+        return new UriMeters(timer("db", uri), timer("mapping", uri), timer("json", uri), timer("total", uri),
+                DistributionSummary.builder("customerhub.server.timing.db.calls")
+                        .description("Calls of the customer repository per request")
+                        .tag("uri", uri)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(String segment, String uri) {
+        return Timer.builder("customerhub.server.timing")
+                .description("Time of a request spent in a segment of the Server-Timing header")
+                .tag("segment", segment)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private record UriMeters(Timer db, Timer mapping, Timer json, Timer total, DistributionSummary dbCalls) {
+    }
+
+    private static class TimingOnCommitResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean headerSet;
+
+        TimingOnCommitResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            setTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            setTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        void setTimingHeader() {
+            if (!headerSet && !isCommitted()) {
+                headerSet = true;
+                setHeader(SERVER_TIMING_HEADER, timing.toServerTiming(timing.elapsedNanos()));
+            }
+        }
+    }
+}
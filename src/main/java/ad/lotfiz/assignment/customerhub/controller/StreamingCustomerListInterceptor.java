@@ -0,0 +1,64 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.model.NameMatchMode;
+import ad.lotfiz.assignment.customerhub.service.streaming.CustomerJsonStreamWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+// sparse fieldsets, fuzzy matches, binary encodings and invalid paging go to the controller
+@Slf4j
+@RequiredArgsConstructor
+public class StreamingCustomerListInterceptor implements HandlerInterceptor {
+
+    private static final String LIST_CUSTOMERS = "listCustomers";
+    private static final String FIND_CUSTOMER = "findCustomer";
+    private static final int DEFAULT_PAGE = 0;
+    private static final int DEFAULT_SIZE = 10;
+
+    private final CustomerJsonStreamWriter customerJsonStreamWriter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || request.getParameter("fields") != null
+                || !InterceptedRequests.acceptsJson(request)) {
+            return true;
+        }
+        String operation = handlerMethod.getMethod().getName();
+        if (!LIST_CUSTOMERS.equals(operation) && !FIND_CUSTOMER.equals(operation)) {
+            return true;
+        }
+        String mode = request.getParameter("mode");
+        if (mode != null && !NameMatchMode.CONTAINS.getName().equals(mode)) {
+            return true;
+        }
+        Integer page = InterceptedRequests.intParameter(request, "page", DEFAULT_PAGE);
+        Integer size = InterceptedRequests.intParameter(request, "size", DEFAULT_SIZE);
+        if (page == null || page < 0 || size == null || size < 1) {
+            return true;
+        }
+        Pageable paging = PageRequest.of(page, size);
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (LIST_CUSTOMERS.equals(operation)) {
+            log.info("Request to stream list of customers {}", paging);
+            customerJsonStreamWriter.writeList(paging, response.getOutputStream());
+        } else {
+            String firstName = request.getParameter("firstName");
+            String lastName = request.getParameter("lastName");
+            log.info("stream a list of customer firstName: {} lastName {} at page:{}", firstName, lastName, paging);
+            customerJsonStreamWriter.writeFindByName(firstName, lastName, paging, response.getOutputStream());
+        }
+        return false;
+    }
+}
@@ -1,15 +1,27 @@
 package ad.lotfiz.assignment.customerhub.controller.advice;
 
 
+import ad.lotfiz.assignment.customerhub.config.DeadlineProperties;
 import ad.lotfiz.assignment.customerhub.exception.CustomerNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.ExportNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.ExportNotReadyException;
 import ad.lotfiz.assignment.customerhub.exception.FieldNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.IdempotencyKeyInProgressException;
+import ad.lotfiz.assignment.customerhub.exception.IdempotencyKeyReusedException;
+import ad.lotfiz.assignment.customerhub.exception.PersistenceUnavailableException;
+import ad.lotfiz.assignment.customerhub.exception.ServiceOverloadedException;
+import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import nl.customerhub.api.v1.model.DuplicateError;
 import nl.customerhub.api.v1.model.ErrorFieldIsInvalid;
 import nl.customerhub.api.v1.model.ErrorFieldIsRequired;
+import nl.customerhub.api.v1.model.ExportNotReadyError;
 import nl.customerhub.api.v1.model.NotFoundError;
+import nl.customerhub.api.v1.model.ServiceUnavailableError;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -21,6 +33,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @RequiredArgsConstructor
 public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final DeadlineProperties deadlineProperties;
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<DuplicateError> handleException(DataIntegrityViolationException ex) {
@@ -30,6 +43,22 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new DuplicateError().message(ex.getMessage()));
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<DuplicateError> handleException(IdempotencyKeyReusedException ex) {
+        log.debug("customer service encounter an exception", ex);
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new DuplicateError().message(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<DuplicateError> handleException(IdempotencyKeyInProgressException ex) {
+        log.debug("customer service encounter an exception", ex);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new DuplicateError().message(ex.getMessage()));
+    }
+
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<NotFoundError> handleException(CustomerNotFoundException ex) {
         log.debug("customer service encounter an exception", ex);
@@ -38,6 +67,22 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new NotFoundError().message(ex.getMessage()));
     }
 
+    @ExceptionHandler(ExportNotFoundException.class)
+    public ResponseEntity<NotFoundError> handleException(ExportNotFoundException ex) {
+        log.debug("customer service encounter an exception", ex);
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new NotFoundError().message(ex.getMessage()));
+    }
+
+    @ExceptionHandler(ExportNotReadyException.class)
+    public ResponseEntity<ExportNotReadyError> handleException(ExportNotReadyException ex) {
+        log.debug("customer service encounter an exception", ex);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ExportNotReadyError().message(ex.getMessage()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorFieldIsInvalid> handleException(IllegalArgumentException ex) {
         log.debug("customer service encounter an exception", ex);
@@ -46,6 +91,14 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new ErrorFieldIsInvalid().message(ex.getMessage()));
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorFieldIsInvalid> handleException(ConstraintViolationException ex) {
+        log.debug("customer service encounter an exception", ex);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorFieldIsInvalid().message(ex.getMessage()));
+    }
+
     @ExceptionHandler(FieldNotFoundException.class)
     public ResponseEntity<ErrorFieldIsRequired> handleException(FieldNotFoundException ex) {
         log.debug("customer service encounter an exception", ex);
@@ -54,4 +107,31 @@ public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new ErrorFieldIsRequired().message(ex.getMessage()));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ServiceUnavailableError> handleException(ServiceOverloadedException ex) {
+        log.debug("customer service sheds a request: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(new ServiceUnavailableError().message(ex.getMessage()));
+    }
+
+    @ExceptionHandler(PersistenceUnavailableException.class)
+    public ResponseEntity<ServiceUnavailableError> handleException(PersistenceUnavailableException ex) {
+        log.debug("customer service fails fast: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(new ServiceUnavailableError().message(ex.getMessage()));
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<ServiceUnavailableError> handleException(QueryTimeoutException ex) {
+        log.debug("customer service query is cancelled at the request deadline", ex);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(deadlineProperties.retryAfter().toSeconds()))
+                .body(new ServiceUnavailableError().message("The request deadline is exceeded"));
+    }
+
 }
@@ -0,0 +1,32 @@
+package ad.lotfiz.assignment.customerhub.controller.advice;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.springframework.stereotype.Component;
+
+// writers that do not provide the filter serialize every field
+@Component
+public class SparseFieldsetModule extends SimpleModule {
+
+    static final String CUSTOMER_FILTER = "customerFields";
+
+    public SparseFieldsetModule() {
+        super(SparseFieldsetModule.class.getSimpleName());
+        setMixInAnnotation(CustomerResponse.class, CustomerResponseFilterMixin.class);
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        if (context.getOwner() instanceof ObjectMapper objectMapper) {
+            objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        }
+    }
+
+    @JsonFilter(CUSTOMER_FILTER)
+    private interface CustomerResponseFilterMixin {
+    }
+}
@@ -0,0 +1,46 @@
+package ad.lotfiz.assignment.customerhub.controller.advice;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+
+@ControllerAdvice
+public class SparseFieldsetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType, MethodParameter returnType,
+                                           ServerHttpRequest request, ServerHttpResponse response) {
+        Object body = bodyContainer.getValue();
+        if (!(body instanceof CustomerResponse || body instanceof CustomerListResponse)
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        HttpServletRequest servletHttpRequest = servletRequest.getServletRequest();
+        String[] values = servletHttpRequest.getParameterValues(FIELDS_PARAMETER);
+        if (values == null) {
+            return;
+        }
+        Set<CustomerField> fields = CustomerField.parse(Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .filter(value -> !value.isBlank())
+                .toList());
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(SparseFieldsetModule.CUSTOMER_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(CustomerField.attributes(fields))));
+    }
+}
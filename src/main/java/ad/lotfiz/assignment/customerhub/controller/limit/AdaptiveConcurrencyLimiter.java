@@ -0,0 +1,115 @@
+package ad.lotfiz.assignment.customerhub.controller.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// gradient limit: grows while latency stays near its long term baseline, shrinks when it rises above baseline * tolerance
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, LongAdder> rejected = new EnumMap<>(RequestPriority.class);
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(@Value("${customer-hub.limiter.initial-limit:20}") int initialLimit,
+                                      @Value("${customer-hub.limiter.min-limit:4}") int minLimit,
+                                      @Value("${customer-hub.limiter.max-limit:200}") int maxLimit,
+                                      @Value("${customer-hub.limiter.tolerance:1.5}") double tolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        onSample(latencyNanos, current);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightAtCompletion) {
+        if (longRtt == 0) {
+            shortRtt = latencyNanos;
+            longRtt = latencyNanos;
+            return;
+        }
+        shortRtt = average(shortRtt, latencyNanos, SHORT_WINDOW);
+        longRtt = average(longRtt, latencyNanos, LONG_WINDOW);
+        if (longRtt > shortRtt * 2) {
+            // latency went down after a spike, let the baseline follow quickly
+            longRtt *= 0.95;
+        }
+        if (inFlightAtCompletion < limit / 2) {
+            // not enough load to tell whether a higher limit would hurt latency
+            return;
+        }
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private static double average(double average, double sample, int window) {
+        double factor = 2.0 / (window + 1);
+        return average * (1 - factor) + sample * factor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customerhub.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit of the REST api")
+                .register(registry);
+        Gauge.builder("customerhub.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(registry);
+        rejected.forEach((priority, count) -> FunctionCounter.builder("customerhub.limiter.rejected", count, LongAdder::sum)
+                .description("Requests rejected with 503 by the concurrency limiter")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry));
+    }
+}
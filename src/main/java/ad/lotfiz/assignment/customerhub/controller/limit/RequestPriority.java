@@ -0,0 +1,29 @@
+package ad.lotfiz.assignment.customerhub.controller.limit;
+
+// the share of the limit a request may occupy, exports are shed first, then writes
+public enum RequestPriority {
+
+    READ(1.0),
+    WRITE(0.8),
+    EXPORT(0.5);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    public double getLimitShare() {
+        return limitShare;
+    }
+
+    public static RequestPriority forOperation(String operation) {
+        if (operation.startsWith("export")) {
+            return EXPORT;
+        }
+        if (operation.startsWith("get") || operation.startsWith("list") || operation.startsWith("find")) {
+            return READ;
+        }
+        return WRITE;
+    }
+}
@@ -0,0 +1,8 @@
+package ad.lotfiz.assignment.customerhub.exception;
+
+public class ExportNotFoundException extends RuntimeException {
+
+    public ExportNotFoundException(String message) {
+        super(message);
+    }
+}
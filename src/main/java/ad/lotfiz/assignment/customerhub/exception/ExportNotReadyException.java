@@ -0,0 +1,8 @@
+package ad.lotfiz.assignment.customerhub.exception;
+
+public class ExportNotReadyException extends RuntimeException {
+
+    public ExportNotReadyException(String message) {
+        super(message);
+    }
+}
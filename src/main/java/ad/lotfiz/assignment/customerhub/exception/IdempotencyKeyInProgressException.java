@@ -0,0 +1,8 @@
+package ad.lotfiz.assignment.customerhub.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package ad.lotfiz.assignment.customerhub.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
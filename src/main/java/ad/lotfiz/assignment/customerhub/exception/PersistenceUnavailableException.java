@@ -0,0 +1,18 @@
+package ad.lotfiz.assignment.customerhub.exception;
+
+import java.time.Duration;
+
+public class PersistenceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PersistenceUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        // thrown for every call while the circuit is open, so the stack trace is not filled in
+        super(message, cause, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
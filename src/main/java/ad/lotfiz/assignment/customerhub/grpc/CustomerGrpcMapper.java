@@ -0,0 +1,76 @@
+package ad.lotfiz.assignment.customerhub.grpc;
+
+import com.google.protobuf.Timestamp;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerRequest;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import nl.customerhub.grpc.v1.CreateCustomerRequest;
+import nl.customerhub.grpc.v1.Customer;
+import nl.customerhub.grpc.v1.CustomerPage;
+import nl.customerhub.grpc.v1.UpdateCustomerRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+@Component
+public class CustomerGrpcMapper {
+
+    public CustomerRequest mapFromCreateRequest(CreateCustomerRequest request) {
+        return new CustomerRequest()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .age(request.hasAge() ? request.getAge() : null)
+                .address(request.hasAddress() ? request.getAddress() : null)
+                .email(request.hasEmail() ? request.getEmail() : null);
+    }
+
+    public CustomerUpdateRequest mapFromUpdateRequest(UpdateCustomerRequest request) {
+        return new CustomerUpdateRequest()
+                .address(request.hasAddress() ? request.getAddress() : null)
+                .email(request.hasEmail() ? request.getEmail() : null);
+    }
+
+    public Customer mapFromCustomerResponse(CustomerResponse response) {
+        Customer.Builder builder = Customer.newBuilder();
+        if (response.getId() != null) {
+            builder.setId(response.getId());
+        }
+        if (response.getFirstName() != null) {
+            builder.setFirstName(response.getFirstName());
+        }
+        if (response.getLastName() != null) {
+            builder.setLastName(response.getLastName());
+        }
+        if (response.getAge() != null) {
+            builder.setAge(response.getAge());
+        }
+        if (response.getAddress() != null) {
+            builder.setAddress(response.getAddress());
+        }
+        if (response.getEmail() != null) {
+            builder.setEmail(response.getEmail());
+        }
+        if (response.getCreated() != null) {
+            builder.setCreated(mapFromOffsetDateTime(response.getCreated()));
+        }
+        if (response.getUpdated() != null) {
+            builder.setUpdated(mapFromOffsetDateTime(response.getUpdated()));
+        }
+        return builder.build();
+    }
+
+    public CustomerPage mapFromCustomerListResponse(CustomerListResponse response) {
+        CustomerPage.Builder builder = CustomerPage.newBuilder()
+                .setPage(response.getPage())
+                .setSize(response.getSize());
+        response.getContent().forEach(customer -> builder.addContent(mapFromCustomerResponse(customer)));
+        return builder.build();
+    }
+
+    private static Timestamp mapFromOffsetDateTime(OffsetDateTime dateTime) {
+        Instant instant = dateTime.toInstant();
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
+}
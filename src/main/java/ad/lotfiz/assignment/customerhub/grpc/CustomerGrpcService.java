@@ -0,0 +1,183 @@
+package ad.lotfiz.assignment.customerhub.grpc;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import com.google.protobuf.Empty;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerRequest;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import nl.customerhub.grpc.v1.CreateCustomerRequest;
+import nl.customerhub.grpc.v1.Customer;
+import nl.customerhub.grpc.v1.CustomerHubGrpc;
+import nl.customerhub.grpc.v1.CustomerPage;
+import nl.customerhub.grpc.v1.DeleteCustomerRequest;
+import nl.customerhub.grpc.v1.ExportCustomersRequest;
+import nl.customerhub.grpc.v1.FindCustomersRequest;
+import nl.customerhub.grpc.v1.GetCustomerRequest;
+import nl.customerhub.grpc.v1.ListCustomersRequest;
+import nl.customerhub.grpc.v1.UpdateCustomerRequest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerGrpcService extends CustomerHubGrpc.CustomerHubImplBase {
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int DEFAULT_EXPORT_BATCH_SIZE = 500;
+    private static final int MAX_EXPORT_BATCH_SIZE = 1000;
+
+    private final CustomerService customerService;
+    private final CustomerGrpcMapper customerGrpcMapper;
+    private final Validator validator;
+
+    @Override
+    public void createCustomer(CreateCustomerRequest request, StreamObserver<Customer> responseObserver) {
+        CustomerRequest customerRequest = customerGrpcMapper.mapFromCreateRequest(request);
+        log.info("grpc request to create customer {}", customerRequest);
+        Set<ConstraintViolation<CustomerRequest>> violations = validator.validate(customerRequest);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        reply(responseObserver, customerGrpcMapper.mapFromCustomerResponse(customerService.createNewCustomer(customerRequest)));
+    }
+
+    @Override
+    public void getCustomer(GetCustomerRequest request, StreamObserver<Customer> responseObserver) {
+        log.info("grpc request to get details of a customer {}", request.getId());
+        CustomerResponse response = customerService.fetchCustomer(request.getId(), CustomerField.parse(request.getFieldsList()));
+        reply(responseObserver, customerGrpcMapper.mapFromCustomerResponse(response));
+    }
+
+    @Override
+    public void updateCustomer(UpdateCustomerRequest request, StreamObserver<Customer> responseObserver) {
+        log.info("grpc request to update the customer id {}", request.getId());
+        CustomerResponse response = customerService.update(request.getId(), customerGrpcMapper.mapFromUpdateRequest(request));
+        reply(responseObserver, customerGrpcMapper.mapFromCustomerResponse(response));
+    }
+
+    @Override
+    public void deleteCustomer(DeleteCustomerRequest request, StreamObserver<Empty> responseObserver) {
+        log.info("grpc request to delete a customer {}", request.getId());
+        customerService.delete(request.getId());
+        reply(responseObserver, Empty.getDefaultInstance());
+    }
+
+    @Override
+    public void listCustomers(ListCustomersRequest request, StreamObserver<CustomerPage> responseObserver) {
+        Pageable paging = paging(request.getPage(), request.getSize());
+        log.info("grpc request to get list of customers {}", paging);
+        CustomerListResponse response = customerService.list(paging, CustomerField.parse(request.getFieldsList()));
+        reply(responseObserver, customerGrpcMapper.mapFromCustomerListResponse(response));
+    }
+
+    @Override
+    public void findCustomers(FindCustomersRequest request, StreamObserver<CustomerPage> responseObserver) {
+        Pageable paging = paging(request.getPage(), request.getSize());
+        String firstName = request.hasFirstName() ? request.getFirstName() : null;
+        String lastName = request.hasLastName() ? request.getLastName() : null;
+        log.info("grpc request to find customers firstName: {} lastName {} at page:{}", firstName, lastName, paging);
+        CustomerListResponse response = customerService.findByName(firstName, lastName, paging, CustomerField.parse(request.getFieldsList()));
+        reply(responseObserver, customerGrpcMapper.mapFromCustomerListResponse(response));
+    }
+
+    @Override
+    public void exportCustomers(ExportCustomersRequest request, StreamObserver<Customer> responseObserver) {
+        int batchSize = request.getBatchSize() > 0 ? Math.min(request.getBatchSize(), MAX_EXPORT_BATCH_SIZE) : DEFAULT_EXPORT_BATCH_SIZE;
+        Set<CustomerField> fields = CustomerField.parse(request.getFieldsList());
+        log.info("grpc request to export customers in batches of {}", batchSize);
+        ServerCallStreamObserver<Customer> serverObserver = (ServerCallStreamObserver<Customer>) responseObserver;
+        // written only while the client keeps up, so a slow client does not make the server buffer the whole table
+        serverObserver.setOnReadyHandler(new CustomerExport(serverObserver, batchSize, fields));
+    }
+
+    private static Pageable paging(int page, int size) {
+        if (page < 0 || size < 0) {
+            throw new IllegalArgumentException("page must not be negative and size must be greater than 0");
+        }
+        return PageRequest.of(page, size == 0 ? DEFAULT_PAGE_SIZE : size);
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T response) {
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    // runs on the on-ready callbacks of the call, which are not concurrent
+    private class CustomerExport implements Runnable {
+
+        private final ServerCallStreamObserver<Customer> observer;
+        private final int batchSize;
+        private final Set<CustomerField> fields;
+        // the id is the key of the next batch, selected even when the client did not ask for it
+        private final Set<CustomerField> selected;
+        private Iterator<CustomerResponse> batch = Collections.emptyIterator();
+        private String lastId;
+        private boolean lastBatch;
+        private boolean done;
+        private long exported;
+
+        CustomerExport(ServerCallStreamObserver<Customer> observer, int batchSize, Set<CustomerField> fields) {
+            this.observer = observer;
+            this.batchSize = batchSize;
+            this.fields = fields;
+            this.selected = EnumSet.of(CustomerField.ID);
+            this.selected.addAll(fields);
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                return;
+            }
+            try {
+                while (observer.isReady()) {
+                    if (observer.isCancelled()) {
+                        log.info("grpc export cancelled by the client after {} customers", exported);
+                        done = true;
+                        return;
+                    }
+                    if (!batch.hasNext()) {
+                        if (lastBatch) {
+                            done = true;
+                            observer.onCompleted();
+                            return;
+                        }
+                        List<CustomerResponse> customers = customerService.listAfter(lastId, batchSize, selected);
+                        lastBatch = customers.size() < batchSize;
+                        batch = customers.iterator();
+                        continue;
+                    }
+                    CustomerResponse customer = batch.next();
+                    lastId = customer.getId();
+                    if (!fields.contains(CustomerField.ID)) {
+                        customer.setId(null);
+                    }
+                    observer.onNext(customerGrpcMapper.mapFromCustomerResponse(customer));
+                    exported++;
+                }
+            } catch (RuntimeException e) {
+                // the exception advice only covers the service method, not the on-ready callbacks
+                done = true;
+                log.error("grpc export failed after {} customers", exported, e);
+                observer.onError(Status.INTERNAL.withDescription(String.format("export failed after %d customers", exported)).asRuntimeException());
+            }
+        }
+    }
+}
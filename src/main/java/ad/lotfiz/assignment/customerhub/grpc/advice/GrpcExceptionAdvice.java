@@ -0,0 +1,47 @@
+package ad.lotfiz.assignment.customerhub.grpc.advice;
+
+import ad.lotfiz.assignment.customerhub.exception.CustomerNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.FieldNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.PersistenceUnavailableException;
+import io.grpc.Status;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.advice.GrpcAdvice;
+import net.devh.boot.grpc.server.advice.GrpcExceptionHandler;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+@Slf4j
+@GrpcAdvice
+public class GrpcExceptionAdvice {
+
+    @GrpcExceptionHandler(DataIntegrityViolationException.class)
+    public Status handleException(DataIntegrityViolationException ex) {
+        log.debug("customer grpc service encounter an exception", ex);
+        return Status.ALREADY_EXISTS.withDescription(ex.getMessage()).withCause(ex);
+    }
+
+    @GrpcExceptionHandler(CustomerNotFoundException.class)
+    public Status handleException(CustomerNotFoundException ex) {
+        log.debug("customer grpc service encounter an exception", ex);
+        return Status.NOT_FOUND.withDescription(ex.getMessage()).withCause(ex);
+    }
+
+    @GrpcExceptionHandler({IllegalArgumentException.class, FieldNotFoundException.class, ConstraintViolationException.class})
+    public Status handleException(RuntimeException ex) {
+        log.debug("customer grpc service encounter an exception", ex);
+        return Status.INVALID_ARGUMENT.withDescription(ex.getMessage()).withCause(ex);
+    }
+
+    @GrpcExceptionHandler(PersistenceUnavailableException.class)
+    public Status handleException(PersistenceUnavailableException ex) {
+        log.debug("customer grpc service fails fast: {}", ex.getMessage());
+        return Status.UNAVAILABLE.withDescription(ex.getMessage()).withCause(ex);
+    }
+
+    @GrpcExceptionHandler(QueryTimeoutException.class)
+    public Status handleException(QueryTimeoutException ex) {
+        log.debug("customer grpc service query is cancelled", ex);
+        return Status.DEADLINE_EXCEEDED.withDescription(ex.getMessage()).withCause(ex);
+    }
+}
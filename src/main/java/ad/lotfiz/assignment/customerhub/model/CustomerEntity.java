@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -13,6 +15,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 @Entity
@@ -36,9 +39,27 @@ public class CustomerEntity {
     private Integer age;
     private String address;
     private String email;
+    // generated by the database
+    @Column(insertable = false, updatable = false)
+    private String emailNormalized;
+    // generated by the database
+    @Column(insertable = false, updatable = false)
+    private String emailDomain;
+    private String firstNamePhonetic;
+    private String lastNamePhonetic;
     @Column(nullable = false)
     private OffsetDateTime created;
     @Column(nullable = false)
     private OffsetDateTime updated;
 
+    @PrePersist
+    @PreUpdate
+    void updatePhoneticKeys() {
+        firstNamePhonetic = PhoneticKeys.of(firstName);
+        lastNamePhonetic = PhoneticKeys.of(lastName);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,58 @@
+package ad.lotfiz.assignment.customerhub.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// the attribute names are shared by the api model and CustomerEntity
+public enum CustomerField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    AGE("age"),
+    ADDRESS("address"),
+    EMAIL("email"),
+    CREATED("created"),
+    UPDATED("updated");
+
+    private static final Set<CustomerField> ALL = Collections.unmodifiableSet(EnumSet.allOf(CustomerField.class));
+
+    private final String attribute;
+
+    CustomerField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public static Set<CustomerField> all() {
+        return ALL;
+    }
+
+    public static Set<CustomerField> parse(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return ALL;
+        }
+        EnumSet<CustomerField> fields = EnumSet.noneOf(CustomerField.class);
+        for (String name : names) {
+            fields.add(fromAttribute(name.trim()));
+        }
+        return fields;
+    }
+
+    public static CustomerField fromAttribute(String attribute) {
+        return Arrays.stream(values())
+                .filter(field -> field.attribute.equals(attribute))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown customer field %s", attribute)));
+    }
+
+    public static Set<String> attributes(Set<CustomerField> fields) {
+        return fields.stream().map(CustomerField::getAttribute).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,33 @@
+package ad.lotfiz.assignment.customerhub.model;
+
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+
+// a name ending with * is a prefix; ages are inclusive, time windows include from and exclude to
+@Builder
+public record CustomerSearchCriteria(
+        String firstName,
+        String lastName,
+        Integer minAge,
+        Integer maxAge,
+        String emailDomain,
+        OffsetDateTime createdFrom,
+        OffsetDateTime createdTo,
+        OffsetDateTime updatedFrom,
+        OffsetDateTime updatedTo) {
+
+    public static final String PREFIX_WILDCARD = "*";
+
+    public CustomerSearchCriteria {
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException(String.format("minAge %d is greater than maxAge %d", minAge, maxAge));
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        if (updatedFrom != null && updatedTo != null && !updatedFrom.isBefore(updatedTo)) {
+            throw new IllegalArgumentException("updatedFrom must be before updatedTo");
+        }
+    }
+}
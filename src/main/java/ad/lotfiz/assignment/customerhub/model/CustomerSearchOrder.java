@@ -0,0 +1,35 @@
+package ad.lotfiz.assignment.customerhub.model;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+// only orders an index can deliver, so a page is read in index order
+public enum CustomerSearchOrder {
+    // idx_customers_last_name, first and last name are unique together
+    LAST_NAME("lastName", Sort.by("lastName", "firstName")),
+    // idx_customers_updated
+    UPDATED("updated", Sort.by("updated", "id"));
+
+    private final String name;
+    private final Sort sort;
+
+    CustomerSearchOrder(String name, Sort sort) {
+        this.name = name;
+        this.sort = sort;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public static CustomerSearchOrder fromName(String name) {
+        if (name == null) {
+            return LAST_NAME;
+        }
+        return Arrays.stream(values())
+                .filter(order -> order.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown search order %s", name)));
+    }
+}
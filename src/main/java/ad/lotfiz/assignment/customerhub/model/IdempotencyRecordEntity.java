@@ -0,0 +1,41 @@
+package ad.lotfiz.assignment.customerhub.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Data
+@Table(
+        name = "IdempotencyKeys",
+        indexes = {
+                @Index(name = "idx_idempotency_keys_expires", columnList = "expires")
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecordEntity {
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    // null while the request that reserved the key is running
+    @Lob
+    private byte[] response;
+    @Column(nullable = false)
+    private OffsetDateTime created;
+    @Column(nullable = false)
+    private OffsetDateTime expires;
+}
@@ -0,0 +1,28 @@
+package ad.lotfiz.assignment.customerhub.model;
+
+import java.util.Arrays;
+
+public enum NameMatchMode {
+    CONTAINS("contains"),
+    FUZZY("fuzzy");
+
+    private final String name;
+
+    NameMatchMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public static NameMatchMode fromName(String name) {
+        if (name == null) {
+            return CONTAINS;
+        }
+        return Arrays.stream(values())
+                .filter(mode -> mode.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown match mode %s", name)));
+    }
+}
@@ -0,0 +1,40 @@
+package ad.lotfiz.assignment.customerhub.model;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// stored keys are the primary Double Metaphone encoding, lookups match the primary and the alternate one
+public final class PhoneticKeys {
+
+    public static final int MAX_LENGTH = 6;
+
+    // the encoder only holds its code length, encoding is thread safe
+    private static final DoubleMetaphone ENCODER = new DoubleMetaphone();
+
+    static {
+        ENCODER.setMaxCodeLen(MAX_LENGTH);
+    }
+
+    private PhoneticKeys() {
+    }
+
+    public static String of(String name) {
+        if (name == null) {
+            return null;
+        }
+        String key = ENCODER.doubleMetaphone(name.trim(), false);
+        return key == null || key.isEmpty() ? null : key;
+    }
+
+    public static Set<String> candidates(String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        String primary = of(name);
+        if (primary != null) {
+            keys.add(primary);
+            keys.add(ENCODER.doubleMetaphone(name.trim(), true));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,25 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+// only the requested fields are selected, as tuples aliased by the field attribute
+public interface CustomerProjectionRepository {
+
+    Optional<Tuple> findProjectionById(UUID id, Set<CustomerField> fields);
+
+    List<Tuple> findAllProjected(Set<CustomerField> fields, Pageable paging);
+
+    List<Tuple> findProjectedByFirstNameLikeAndLastNameLike(String firstName, String lastName, Set<CustomerField> fields, Pageable paging);
+
+    // without counting all matches
+    List<Tuple> findProjected(Specification<CustomerEntity> specification, Set<CustomerField> fields, Pageable paging);
+}
@@ -0,0 +1,83 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+class CustomerProjectionRepositoryImpl implements CustomerProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Tuple> findProjectionById(UUID id, Set<CustomerField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CustomerEntity> root = query.from(CustomerEntity.class);
+        query.multiselect(selections(root, fields)).where(cb.equal(root.get(CustomerField.ID.getAttribute()), id));
+
+        return entityManager.createQuery(query).setMaxResults(1).getResultList().stream().findFirst();
+    }
+
+    @Override
+    public List<Tuple> findAllProjected(Set<CustomerField> fields, Pageable paging) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CustomerEntity> root = query.from(CustomerEntity.class);
+        query.multiselect(selections(root, fields)).orderBy(QueryUtils.toOrders(paging.getSort(), root, cb));
+
+        return page(query, paging);
+    }
+
+    @Override
+    public List<Tuple> findProjectedByFirstNameLikeAndLastNameLike(String firstName, String lastName, Set<CustomerField> fields, Pageable paging) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CustomerEntity> root = query.from(CustomerEntity.class);
+        query.multiselect(selections(root, fields))
+                .where(cb.like(root.get(CustomerField.FIRST_NAME.getAttribute()), firstName),
+                        cb.like(root.get(CustomerField.LAST_NAME.getAttribute()), lastName))
+                .orderBy(QueryUtils.toOrders(paging.getSort(), root, cb));
+
+        return page(query, paging);
+    }
+
+    @Override
+    public List<Tuple> findProjected(Specification<CustomerEntity> specification, Set<CustomerField> fields, Pageable paging) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<CustomerEntity> root = query.from(CustomerEntity.class);
+        query.multiselect(selections(root, fields))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(paging.getSort(), root, cb));
+
+        return page(query, paging);
+    }
+
+    private List<Tuple> page(CriteriaQuery<Tuple> query, Pageable paging) {
+        return entityManager.createQuery(query)
+                .setFirstResult((int) paging.getOffset())
+                .setMaxResults(paging.getPageSize())
+                .getResultList();
+    }
+
+    private static List<Selection<?>> selections(Root<CustomerEntity> root, Set<CustomerField> fields) {
+        return fields.stream()
+                .<Selection<?>>map(field -> root.get(field.getAttribute()).alias(field.getAttribute()))
+                .toList();
+    }
+}
@@ -3,12 +3,43 @@ package ad.lotfiz.assignment.customerhub.repository;
 import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface CustomerRepository  extends JpaRepository<CustomerEntity, UUID> {
+public interface CustomerRepository  extends JpaRepository<CustomerEntity, UUID>, CustomerProjectionRepository, CustomerUpsertRepository {
     Page<CustomerEntity> findByFirstNameLikeAndLastNameLike(String firstName, String lastName, Pageable paging);
+
+    // served by idx_customers_last_name
+    Slice<CustomerEntity> findByLastNameStartingWithOrderByLastNameAscFirstNameAsc(String lastNamePrefix, Pageable paging);
+
+    // served by idx_customers_email_normalized, see CustomerEntity#normalizeEmail
+    List<CustomerEntity> findByEmailNormalized(String emailNormalized);
+
+    // served by idx_customers_name_phonetic, see PhoneticKeys
+    List<CustomerEntity> findByLastNamePhoneticInAndFirstNamePhoneticIn(Collection<String> lastNameKeys, Collection<String> firstNameKeys, Pageable paging);
+
+    List<CustomerEntity> findByLastNamePhoneticIn(Collection<String> lastNameKeys, Pageable paging);
+
+    // served by idx_customers_first_name_phonetic
+    List<CustomerEntity> findByFirstNamePhoneticIn(Collection<String> firstNameKeys, Pageable paging);
+
+    // served by idx_customers_updated
+    Slice<CustomerEntity> findByUpdatedAfterOrderByUpdatedAsc(OffsetDateTime updatedAfter, Pageable paging);
+
+    // keyset reads in primary key order
+    Slice<CustomerEntity> findAllByOrderByIdAsc(Pageable paging);
+
+    Slice<CustomerEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Pageable paging);
+
+    // primary key lookups, the ids of the customers that exist and did not change since
+    @Query("select c.id from CustomerEntity c where c.id in :ids and c.updated < :since")
+    List<UUID> findIdsNotUpdatedSince(Collection<UUID> ids, OffsetDateTime since);
 }
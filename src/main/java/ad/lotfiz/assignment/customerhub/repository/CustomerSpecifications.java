@@ -0,0 +1,106 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// names compare exactly or as a prefix range, never with a leading wildcard, so the indexes stay usable
+public final class CustomerSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private CustomerSpecifications() {
+    }
+
+    public static Specification<CustomerEntity> matching(CustomerSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            name(cb, root.get("lastName"), criteria.lastName(), predicates);
+            name(cb, root.get("firstName"), criteria.firstName(), predicates);
+            if (criteria.minAge() != null && criteria.minAge().equals(criteria.maxAge())) {
+                predicates.add(cb.equal(root.get("age"), criteria.minAge()));
+            } else {
+                if (criteria.minAge() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("age"), criteria.minAge()));
+                }
+                if (criteria.maxAge() != null) {
+                    predicates.add(cb.lessThanOrEqualTo(root.get("age"), criteria.maxAge()));
+                }
+            }
+            if (criteria.emailDomain() != null) {
+                predicates.add(cb.equal(root.get("emailDomain"), normalizeDomain(criteria.emailDomain())));
+            }
+            window(cb, root.get("created"), criteria.createdFrom(), criteria.createdTo(), predicates);
+            window(cb, root.get("updated"), criteria.updatedFrom(), criteria.updatedTo(), predicates);
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // the predicates of the phonetic finders of CustomerRepository, an empty collection matches any key
+    public static Specification<CustomerEntity> phoneticKeysIn(Collection<String> lastNameKeys, Collection<String> firstNameKeys) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!lastNameKeys.isEmpty()) {
+                predicates.add(root.get("lastNamePhonetic").in(lastNameKeys));
+            }
+            if (!firstNameKeys.isEmpty()) {
+                predicates.add(root.get("firstNamePhonetic").in(firstNameKeys));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<CustomerEntity> idAfter(UUID id) {
+        return (root, query, cb) -> id == null ? cb.conjunction() : cb.greaterThan(root.<UUID>get("id"), id);
+    }
+
+    private static void name(CriteriaBuilder cb, Path<String> path, String name, List<Predicate> predicates) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        if (!name.endsWith(CustomerSearchCriteria.PREFIX_WILDCARD)) {
+            predicates.add(cb.equal(path, name));
+            return;
+        }
+        String prefix = name.substring(0, name.length() - CustomerSearchCriteria.PREFIX_WILDCARD.length());
+        if (!prefix.isEmpty()) {
+            predicates.add(cb.like(path, escapeLike(prefix) + "%", LIKE_ESCAPE));
+        }
+    }
+
+    private static void window(CriteriaBuilder cb, Path<OffsetDateTime> path, OffsetDateTime from, OffsetDateTime to,
+                               List<Predicate> predicates) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(path, to));
+        }
+    }
+
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static String normalizeDomain(String domain) {
+        String normalized = domain.trim().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("@") ? normalized.substring(1) : normalized;
+    }
+}
@@ -0,0 +1,11 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+
+import java.util.List;
+
+public interface CustomerUpsertRepository {
+
+    // one INSERT ... ON DUPLICATE KEY UPDATE (MySQL) or MERGE (H2) per customer, in one JDBC batch; the proposed id is kept when inserted
+    List<CustomerEntity> upsertByName(List<CustomerEntity> customers);
+}
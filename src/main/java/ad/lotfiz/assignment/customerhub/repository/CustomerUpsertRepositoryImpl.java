@@ -0,0 +1,126 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.PhoneticKeys;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class CustomerUpsertRepositoryImpl implements CustomerUpsertRepository {
+
+    // the names, and so their phonetic keys, never change on an update
+    private static final String MYSQL_UPSERT = "insert into customers (id, first_name, last_name, age, address, email, created, updated, "
+            + "first_name_phonetic, last_name_phonetic) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) as new "
+            + "on duplicate key update age = new.age, address = new.address, email = new.email, updated = new.updated";
+
+    private static final String H2_UPSERT = "merge into customers c "
+            + "using (values (cast(? as uuid), ?, ?, cast(? as integer), ?, ?, cast(? as timestamp with time zone), cast(? as timestamp with time zone), "
+            + "cast(? as varchar), cast(? as varchar))) "
+            + "s (id, first_name, last_name, age, address, email, created, updated, first_name_phonetic, last_name_phonetic) "
+            + "on c.first_name = s.first_name and c.last_name = s.last_name "
+            + "when matched then update set age = s.age, address = s.address, email = s.email, updated = s.updated "
+            + "when not matched then insert (id, first_name, last_name, age, address, email, created, updated, first_name_phonetic, last_name_phonetic) "
+            + "values (s.id, s.first_name, s.last_name, s.age, s.address, s.email, s.created, s.updated, s.first_name_phonetic, s.last_name_phonetic)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private boolean mysql;
+
+    // fails the startup rather than every upsert on a database without an upsert statement here
+    @PostConstruct
+    void checkDialect() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (!(dialect instanceof MySQLDialect) && !(dialect instanceof H2Dialect)) {
+            throw new IllegalStateException("Upsert is not supported on " + dialect);
+        }
+        mysql = dialect instanceof MySQLDialect;
+    }
+
+    @Override
+    @Transactional
+    public List<CustomerEntity> upsertByName(List<CustomerEntity> customers) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(mysql ? MYSQL_UPSERT : H2_UPSERT)) {
+                for (CustomerEntity customer : customers) {
+                    bind(statement, customer, mysql);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        return findByNames(customers);
+    }
+
+    private static void bind(PreparedStatement statement, CustomerEntity customer, boolean mysql) throws SQLException {
+        // bound the way Hibernate binds them: binary(16) ids and timestamps normalized to the JVM time zone on MySQL
+        statement.setObject(1, mysql ? toBytes(customer.getId()) : customer.getId());
+        statement.setString(2, customer.getFirstName());
+        statement.setString(3, customer.getLastName());
+        if (customer.getAge() == null) {
+            statement.setNull(4, Types.INTEGER);
+        } else {
+            statement.setInt(4, customer.getAge());
+        }
+        statement.setString(5, customer.getAddress());
+        statement.setString(6, customer.getEmail());
+        statement.setObject(7, timestamp(customer.getCreated(), mysql));
+        statement.setObject(8, timestamp(customer.getUpdated(), mysql));
+        statement.setString(9, PhoneticKeys.of(customer.getFirstName()));
+        statement.setString(10, PhoneticKeys.of(customer.getLastName()));
+    }
+
+    private static Object timestamp(OffsetDateTime time, boolean mysql) {
+        return mysql ? Timestamp.from(time.toInstant()) : time;
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private List<CustomerEntity> findByNames(List<CustomerEntity> customers) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerEntity> query = cb.createQuery(CustomerEntity.class);
+        Root<CustomerEntity> root = query.from(CustomerEntity.class);
+        Predicate[] names = customers.stream()
+                .map(customer -> cb.and(cb.equal(root.get("firstName"), customer.getFirstName()), cb.equal(root.get("lastName"), customer.getLastName())))
+                .toArray(Predicate[]::new);
+        List<CustomerEntity> stored = entityManager.createQuery(query.where(cb.or(names))).getResultList();
+
+        Map<String, CustomerEntity> byName = stored.stream().collect(Collectors.toMap(CustomerUpsertRepositoryImpl::name, Function.identity(), (a, b) -> a));
+        // case insensitive collations (MySQL) match names that differ in case only
+        Map<String, CustomerEntity> byLowerCaseName = stored.stream()
+                .collect(Collectors.toMap(customer -> name(customer).toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a));
+        return customers.stream()
+                .map(customer -> byName.getOrDefault(name(customer), byLowerCaseName.get(name(customer).toLowerCase(Locale.ROOT))))
+                .toList();
+    }
+
+    private static String name(CustomerEntity customer) {
+        return customer.getFirstName() + '\u0000' + customer.getLastName();
+    }
+}
@@ -0,0 +1,71 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.service.deadline.Deadline;
+import ad.lotfiz.assignment.customerhub.service.deadline.DeadlineContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+
+// JDBC query timeouts are whole seconds, the remaining time is rounded up
+public class DeadlineAwareDataSource extends DelegatingDataSource {
+
+    private static final String QUERY_CANCELED = "57014";
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public DeadlineAwareDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withDeadlines(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withDeadlines(super.getConnection(username, password));
+    }
+
+    private static Connection withDeadlines(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DeadlineAwareDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                        applyDeadline(statement);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    static void applyDeadline(Statement statement) throws SQLException {
+        Deadline deadline = DeadlineContext.current().orElse(null);
+        if (deadline == null) {
+            return;
+        }
+        long remainingMillis = deadline.remaining().toMillis();
+        if (remainingMillis <= 0) {
+            statement.close();
+            throw new SQLTimeoutException("The deadline of " + deadline.endpoint() + " has passed before the query was sent", QUERY_CANCELED);
+        }
+        int timeoutSeconds = (int) Math.ceil(remainingMillis / 1000.0);
+        if (statement.getQueryTimeout() == 0 || timeoutSeconds < statement.getQueryTimeout()) {
+            statement.setQueryTimeout(timeoutSeconds);
+        }
+    }
+}
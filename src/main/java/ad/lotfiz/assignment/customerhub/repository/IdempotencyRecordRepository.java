@@ -0,0 +1,39 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.IdempotencyRecordEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecordEntity, String> {
+
+    // unlike save, never overwrites the record of a concurrent request with the same key
+    @Transactional
+    @Modifying
+    @Query("insert into IdempotencyRecordEntity (idempotencyKey, requestHash, response, created, expires) "
+            + "values (:#{#record.idempotencyKey}, :#{#record.requestHash}, :#{#record.response}, :#{#record.created}, :#{#record.expires})")
+    int insert(IdempotencyRecordEntity record);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecordEntity r set r.response = :response, r.expires = :expires where r.idempotencyKey = :idempotencyKey")
+    int complete(String idempotencyKey, byte[] response, OffsetDateTime expires);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecordEntity r where r.idempotencyKey = :idempotencyKey and r.response is null")
+    int deleteInProgress(String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecordEntity r where r.expires < :now")
+    int deleteExpired(OffsetDateTime now);
+
+    @Query("select r.idempotencyKey from IdempotencyRecordEntity r order by r.created")
+    List<String> findOldestKeys(Pageable paging);
+}
@@ -0,0 +1,48 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.exception.PersistenceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+public class RepositoryCircuitBreakerAspect {
+
+    public static final String CIRCUIT_BREAKER = "persistence";
+
+    private final CircuitBreaker circuitBreaker;
+
+    public RepositoryCircuitBreakerAspect(CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER);
+    }
+
+    @Around("this(ad.lotfiz.assignment.customerhub.repository.CustomerRepository)")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw unavailable(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+        long start = circuitBreaker.getCurrentTimestamp();
+        try {
+            Object result = joinPoint.proceed();
+            circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), result);
+            return result;
+        } catch (Throwable e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        }
+    }
+
+    private PersistenceUnavailableException unavailable(CallNotPermittedException cause) {
+        long waitMillis = circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1);
+        Duration retryAfter = Duration.ofSeconds(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis)));
+        return new PersistenceUnavailableException("The database is unavailable, retry later", retryAfter, cause);
+    }
+}
@@ -0,0 +1,65 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+public class WorkloadPools implements AutoCloseable {
+
+    private final Map<Workload, HikariDataSource> pools;
+
+    public WorkloadPools(Function<Workload, HikariDataSource> poolFactory) {
+        EnumMap<Workload, HikariDataSource> created = new EnumMap<>(Workload.class);
+        for (Workload workload : Workload.values()) {
+            HikariDataSource pool = poolFactory.apply(workload);
+            pool.setPoolName(poolName(workload));
+            created.put(workload, pool);
+        }
+        this.pools = Collections.unmodifiableMap(created);
+    }
+
+    public static String poolName(Workload workload) {
+        return "customerhub-" + workload.name().toLowerCase(Locale.ROOT);
+    }
+
+    public Map<Workload, HikariDataSource> pools() {
+        return pools;
+    }
+
+    public HikariDataSource pool(Workload workload) {
+        return pools.get(workload);
+    }
+
+    // must be called before the pools hand out their first connection
+    public void bindTo(MeterRegistry meterRegistry) {
+        pools.forEach((workload, pool) -> {
+            pool.setMetricRegistry(meterRegistry);
+            Gauge.builder("customerhub.datasource.saturation", pool, WorkloadPools::saturation)
+                    .description("Share of the connections of the pool in use")
+                    .tag("workload", workload.name().toLowerCase(Locale.ROOT))
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+        });
+    }
+
+    private static double saturation(HikariDataSource pool) {
+        HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+        if (poolBean == null) {
+            return 0;
+        }
+        return (double) poolBean.getActiveConnections() / pool.getMaximumPoolSize();
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,82 @@
+package ad.lotfiz.assignment.customerhub.repository.migration;
+
+import ad.lotfiz.assignment.customerhub.model.PhoneticKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// V7: the phonetic keys are computed in Java, so this cannot be a SQL migration
+@Slf4j
+@Component
+public class PhoneticNameKeysMigration implements JavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String FIRST_BATCH = "select id, first_name, last_name from customers order by id limit ?";
+    private static final String NEXT_BATCH = "select id, first_name, last_name from customers where id > ? order by id limit ?";
+    private static final String UPDATE = "update customers set first_name_phonetic = ?, last_name_phonetic = ? where id = ?";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("7");
+    }
+
+    @Override
+    public String getDescription() {
+        return "backfill phonetic name keys";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        long updated = 0;
+        Object lastId = null;
+        try (PreparedStatement first = connection.prepareStatement(FIRST_BATCH);
+             PreparedStatement next = connection.prepareStatement(NEXT_BATCH);
+             PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            int rows;
+            do {
+                PreparedStatement select = lastId == null ? first : next;
+                if (lastId == null) {
+                    first.setInt(1, BATCH_SIZE);
+                } else {
+                    next.setObject(1, lastId);
+                    next.setInt(2, BATCH_SIZE);
+                }
+                rows = 0;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getObject(1);
+                        update.setString(1, PhoneticKeys.of(resultSet.getString(2)));
+                        update.setString(2, PhoneticKeys.of(resultSet.getString(3)));
+                        update.setObject(3, lastId);
+                        update.addBatch();
+                        rows++;
+                    }
+                }
+                if (rows > 0) {
+                    update.executeBatch();
+                    updated += rows;
+                }
+            } while (rows == BATCH_SIZE);
+        }
+        log.info("Backfilled the phonetic name keys of {} customers", updated);
+    }
+}
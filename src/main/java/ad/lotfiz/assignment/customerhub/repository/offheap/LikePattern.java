@@ -0,0 +1,65 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import java.util.Arrays;
+
+// case is ignored, as by the default collation of the MySQL customers table
+final class LikePattern {
+
+    private static final char ANY = '%';
+    private static final char ONE = '_';
+    private static final char ESCAPE = '\\';
+
+    // the pattern without escapes, wildcards flagged by position
+    private final char[] chars;
+    private final boolean[] wildcard;
+
+    private LikePattern(char[] chars, boolean[] wildcard) {
+        this.chars = chars;
+        this.wildcard = wildcard;
+    }
+
+    static LikePattern compile(String pattern) {
+        char[] chars = new char[pattern.length()];
+        boolean[] wildcard = new boolean[pattern.length()];
+        int length = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == ESCAPE && i + 1 < pattern.length()) {
+                chars[length++] = Character.toLowerCase(pattern.charAt(++i));
+            } else {
+                wildcard[length] = c == ANY || c == ONE;
+                chars[length++] = wildcard[length - 1] ? c : Character.toLowerCase(c);
+            }
+        }
+        return new LikePattern(Arrays.copyOf(chars, length), Arrays.copyOf(wildcard, length));
+    }
+
+    boolean matches(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        // greedy matching with backtracking to the last %
+        int v = 0;
+        int p = 0;
+        int starP = -1;
+        int starV = 0;
+        while (v < value.length()) {
+            if (p < chars.length && wildcard[p] && chars[p] == ANY) {
+                starP = p++;
+                starV = v;
+            } else if (p < chars.length && (wildcard[p] ? chars[p] == ONE : chars[p] == Character.toLowerCase(value.charAt(v)))) {
+                p++;
+                v++;
+            } else if (starP >= 0) {
+                p = starP + 1;
+                v = ++starV;
+            } else {
+                return false;
+            }
+        }
+        while (p < chars.length && wildcard[p] && chars[p] == ANY) {
+            p++;
+        }
+        return p == chars.length;
+    }
+}
@@ -0,0 +1,98 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// comes before the circuit breaker; projections, sorted pages and searches still go to the database
+@Aspect
+@Component
+@Profile("offheap")
+@Order(0)
+@RequiredArgsConstructor
+public class OffHeapCustomerRepositoryAspect {
+
+    private final OffHeapCustomerStore store;
+
+    @Around("this(ad.lotfiz.assignment.customerhub.repository.CustomerRepository) && execution(* findById(..))")
+    public Object findById(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object id = joinPoint.getArgs()[0];
+        if (!store.isLoaded() || !(id instanceof UUID uuid)) {
+            return joinPoint.proceed();
+        }
+        return store.get(uuid);
+    }
+
+    @Around("this(ad.lotfiz.assignment.customerhub.repository.CustomerRepository) && execution(* findAll(org.springframework.data.domain.Pageable))")
+    public Object findAll(ProceedingJoinPoint joinPoint) throws Throwable {
+        Pageable paging = (Pageable) joinPoint.getArgs()[0];
+        if (!store.isLoaded() || paging.getSort().isSorted()) {
+            return joinPoint.proceed();
+        }
+        return store.findAll(paging);
+    }
+
+    @Around("this(ad.lotfiz.assignment.customerhub.repository.CustomerRepository) && execution(* findByFirstNameLikeAndLastNameLike(..))")
+    public Object findByName(ProceedingJoinPoint joinPoint) throws Throwable {
+        String firstName = (String) joinPoint.getArgs()[0];
+        String lastName = (String) joinPoint.getArgs()[1];
+        Pageable paging = (Pageable) joinPoint.getArgs()[2];
+        if (!store.isLoaded() || firstName == null || lastName == null || paging.getSort().isSorted()) {
+            return joinPoint.proceed();
+        }
+        return store.findByFirstNameLikeAndLastNameLike(firstName, lastName, paging);
+    }
+
+    @Around("this(ad.lotfiz.assignment.customerhub.repository.CustomerRepository) && (execution(* save*(..)) || execution(* delete*(..)) || execution(* upsertByName(..)))")
+    public Object writeThrough(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        String method = joinPoint.getSignature().getName();
+        Object argument = joinPoint.getArgs().length == 0 ? null : joinPoint.getArgs()[0];
+        Runnable apply = () -> apply(method, argument, result);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+        return result;
+    }
+
+    private void apply(String method, Object argument, Object result) {
+        if (method.startsWith("save") || method.equals("upsertByName")) {
+            // the saved entities, as stored by the database
+            forEach(result, element -> store.put((CustomerEntity) element));
+        } else if (argument == null) {
+            // deleteAll(), deleteAllInBatch()
+            store.clear();
+        } else if (method.endsWith("ById") || method.endsWith("ByIdInBatch")) {
+            forEach(argument, id -> store.remove((UUID) id));
+        } else {
+            forEach(argument, customer -> store.remove(((CustomerEntity) customer).getId()));
+        }
+    }
+
+    private static void forEach(Object entityOrEntities, Consumer<Object> action) {
+        if (entityOrEntities instanceof Iterable<?> elements) {
+            elements.forEach(action);
+        } else if (entityOrEntities != null) {
+            action.accept(entityOrEntities);
+        }
+    }
+}
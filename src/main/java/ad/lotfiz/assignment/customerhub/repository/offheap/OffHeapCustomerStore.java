@@ -0,0 +1,352 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// record layout: id (2 long), first/last name codes (int), age (int, MIN_VALUE when absent), live (int),
+// address/email refs (long), created/updated (epoch second long, nano int, offset int)
+public class OffHeapCustomerStore {
+
+    static final int RECORD_SIZE = 80;
+    private static final int SLAB_SHIFT = 16;
+    static final int SLAB_RECORDS = 1 << SLAB_SHIFT;
+
+    private static final int MSB = 0;
+    private static final int LSB = 8;
+    private static final int FIRST_NAME = 16;
+    private static final int LAST_NAME = 20;
+    private static final int AGE = 24;
+    private static final int LIVE = 28;
+    private static final int ADDRESS = 32;
+    private static final int EMAIL = 40;
+    private static final int CREATED = 48;
+    private static final int UPDATED = 64;
+    private static final int NO_AGE = Integer.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int expectedSize;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private StringDictionary names = new StringDictionary();
+    private StringHeap strings = new StringHeap();
+    private UuidIndex index;
+    private int[] freeRecords = new int[16];
+    private int freeCount;
+    private int records;
+    private volatile boolean loaded;
+    // ids written while loading, the loaded rows of these are older
+    private Set<UUID> writtenWhileLoading = new HashSet<>();
+
+    public OffHeapCustomerStore(int expectedSize) {
+        this.expectedSize = expectedSize;
+        this.index = new UuidIndex(expectedSize);
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("customerhub.offheap.customers", this, OffHeapCustomerStore::size)
+                .description("Customers in the off-heap store")
+                .register(registry);
+        Gauge.builder("customerhub.offheap.bytes", this, OffHeapCustomerStore::offHeapBytes)
+                .description("Direct memory of the off-heap store")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("customerhub.offheap.garbage", this, store -> store.read(store.strings::garbageBytes))
+                .description("Bytes of replaced addresses and emails that are not reclaimed yet")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // a customer written since the load started keeps the newer state
+    public void load(CustomerEntity customer) {
+        write(() -> {
+            if (!writtenWhileLoading.contains(customer.getId())) {
+                store(customer);
+            }
+            return null;
+        });
+    }
+
+    public void loadCompleted() {
+        write(() -> {
+            writtenWhileLoading = Set.of();
+            loaded = true;
+            return null;
+        });
+    }
+
+    public void put(CustomerEntity customer) {
+        write(() -> {
+            if (!loaded) {
+                writtenWhileLoading.add(customer.getId());
+            }
+            store(customer);
+            compactIfNeeded();
+            return null;
+        });
+    }
+
+    public void remove(UUID id) {
+        write(() -> {
+            if (!loaded) {
+                writtenWhileLoading.add(id);
+            }
+            int record = index.remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (record >= 0) {
+                ByteBuffer slab = slab(record);
+                int offset = offset(record);
+                strings.release(slab.getLong(offset + ADDRESS));
+                strings.release(slab.getLong(offset + EMAIL));
+                slab.putInt(offset + LIVE, 0);
+                if (freeCount == freeRecords.length) {
+                    freeRecords = Arrays.copyOf(freeRecords, freeCount * 2);
+                }
+                freeRecords[freeCount++] = record;
+                compactIfNeeded();
+            }
+            return null;
+        });
+    }
+
+    public void clear() {
+        write(() -> {
+            slabs.clear();
+            names.clear();
+            strings.clear();
+            index = new UuidIndex(expectedSize);
+            freeRecords = new int[16];
+            freeCount = 0;
+            records = 0;
+            return null;
+        });
+    }
+
+    public Optional<CustomerEntity> get(UUID id) {
+        return read(() -> {
+            int record = index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return record < 0 ? Optional.empty() : Optional.of(toEntity(record));
+        });
+    }
+
+    public Page<CustomerEntity> findAll(Pageable paging) {
+        return read(() -> page(paging, record -> true));
+    }
+
+    // a pattern is evaluated once per distinct name
+    public Page<CustomerEntity> findByFirstNameLikeAndLastNameLike(String firstName, String lastName, Pageable paging) {
+        LikePattern firstNamePattern = LikePattern.compile(firstName);
+        LikePattern lastNamePattern = LikePattern.compile(lastName);
+        return read(() -> {
+            NameMatches firstNames = new NameMatches(firstNamePattern);
+            NameMatches lastNames = new NameMatches(lastNamePattern);
+            return page(paging, record -> {
+                ByteBuffer slab = slab(record);
+                int offset = offset(record);
+                return lastNames.matches(slab.getInt(offset + LAST_NAME)) && firstNames.matches(slab.getInt(offset + FIRST_NAME));
+            });
+        });
+    }
+
+    public int size() {
+        return read(index::size);
+    }
+
+    public long offHeapBytes() {
+        return read(() -> (long) slabs.size() * SLAB_RECORDS * RECORD_SIZE + index.bytes() + names.bytes() + strings.bytes());
+    }
+
+    // copies the live strings into a new heap once released ones fill half of it and re-encodes the names once
+    // the dictionary holds twice the codes that live customers can use, both amortized over the writes since
+    private void compactIfNeeded() {
+        boolean compactStrings = strings.bytes() > StringHeap.CHUNK_SIZE && strings.garbageBytes() * 2 > strings.bytes();
+        boolean compactNames = names.size() > 4L * Math.max(index.size(), 1024);
+        if (!compactStrings && !compactNames) {
+            return;
+        }
+        StringHeap compactedStrings = compactStrings ? new StringHeap() : strings;
+        StringDictionary compactedNames = compactNames ? new StringDictionary() : names;
+        for (int record = 0; record < records; record++) {
+            ByteBuffer slab = slab(record);
+            int offset = offset(record);
+            if (slab.getInt(offset + LIVE) == 0) {
+                continue;
+            }
+            if (compactStrings) {
+                slab.putLong(offset + ADDRESS, compactedStrings.copy(strings, slab.getLong(offset + ADDRESS)))
+                        .putLong(offset + EMAIL, compactedStrings.copy(strings, slab.getLong(offset + EMAIL)));
+            }
+            if (compactNames) {
+                slab.putInt(offset + FIRST_NAME, compactedNames.encode(names.decode(slab.getInt(offset + FIRST_NAME))))
+                        .putInt(offset + LAST_NAME, compactedNames.encode(names.decode(slab.getInt(offset + LAST_NAME))));
+            }
+        }
+        strings = compactedStrings;
+        names = compactedNames;
+    }
+
+    private void store(CustomerEntity customer) {
+        UUID id = customer.getId();
+        int record = index.get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        boolean added = record < 0;
+        ByteBuffer slab;
+        int offset;
+        if (added) {
+            record = allocate();
+            slab = slab(record);
+            offset = offset(record);
+        } else {
+            slab = slab(record);
+            offset = offset(record);
+            strings.release(slab.getLong(offset + ADDRESS));
+            strings.release(slab.getLong(offset + EMAIL));
+        }
+        slab.putLong(offset + MSB, id.getMostSignificantBits())
+                .putLong(offset + LSB, id.getLeastSignificantBits())
+                .putInt(offset + FIRST_NAME, names.encode(customer.getFirstName()))
+                .putInt(offset + LAST_NAME, names.encode(customer.getLastName()))
+                .putInt(offset + AGE, customer.getAge() == null ? NO_AGE : customer.getAge())
+                .putInt(offset + LIVE, 1)
+                .putLong(offset + ADDRESS, strings.put(customer.getAddress()))
+                .putLong(offset + EMAIL, strings.put(customer.getEmail()));
+        putTime(slab, offset + CREATED, customer.getCreated());
+        putTime(slab, offset + UPDATED, customer.getUpdated());
+        if (added) {
+            index.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), record);
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeRecords[--freeCount];
+        }
+        int record = records++;
+        if (record >>> SLAB_SHIFT == slabs.size()) {
+            slabs.add(ByteBuffer.allocateDirect(SLAB_RECORDS * RECORD_SIZE));
+        }
+        return record;
+    }
+
+    private Page<CustomerEntity> page(Pageable paging, RecordFilter filter) {
+        long skip = paging.isPaged() ? paging.getOffset() : 0;
+        int limit = paging.isPaged() ? paging.getPageSize() : Integer.MAX_VALUE;
+        List<CustomerEntity> content = new ArrayList<>(Math.min(limit, 1000));
+        long total = 0;
+        for (int record = 0; record < records; record++) {
+            if (slab(record).getInt(offset(record) + LIVE) == 0 || !filter.accepts(record)) {
+                continue;
+            }
+            if (total >= skip && content.size() < limit) {
+                content.add(toEntity(record));
+            }
+            total++;
+        }
+        return new PageImpl<>(content, paging, total);
+    }
+
+    private CustomerEntity toEntity(int record) {
+        ByteBuffer slab = slab(record);
+        int offset = offset(record);
+        int age = slab.getInt(offset + AGE);
+        CustomerEntity customer = new CustomerEntity();
+        customer.setId(new UUID(slab.getLong(offset + MSB), slab.getLong(offset + LSB)));
+        customer.setFirstName(names.decode(slab.getInt(offset + FIRST_NAME)));
+        customer.setLastName(names.decode(slab.getInt(offset + LAST_NAME)));
+        customer.setAge(age == NO_AGE ? null : age);
+        customer.setAddress(strings.get(slab.getLong(offset + ADDRESS)));
+        customer.setEmail(strings.get(slab.getLong(offset + EMAIL)));
+        customer.setCreated(getTime(slab, offset + CREATED));
+        customer.setUpdated(getTime(slab, offset + UPDATED));
+        return customer;
+    }
+
+    private ByteBuffer slab(int record) {
+        return slabs.get(record >>> SLAB_SHIFT);
+    }
+
+    private static int offset(int record) {
+        return (record & (SLAB_RECORDS - 1)) * RECORD_SIZE;
+    }
+
+    private static void putTime(ByteBuffer slab, int offset, OffsetDateTime time) {
+        // the precision of the datetime(6) columns
+        OffsetDateTime stored = time.truncatedTo(ChronoUnit.MICROS);
+        slab.putLong(offset, stored.toEpochSecond())
+                .putInt(offset + 8, stored.getNano())
+                .putInt(offset + 12, stored.getOffset().getTotalSeconds());
+    }
+
+    private static OffsetDateTime getTime(ByteBuffer slab, int offset) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(slab.getLong(offset), slab.getInt(offset + 8)),
+                ZoneOffset.ofTotalSeconds(slab.getInt(offset + 12)));
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> writer) {
+        lock.writeLock().lock();
+        try {
+            return writer.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordFilter {
+        boolean accepts(int record);
+    }
+
+    private class NameMatches {
+
+        private static final byte UNKNOWN = 0;
+        private static final byte MATCH = 1;
+        private static final byte NO_MATCH = 2;
+
+        private final LikePattern pattern;
+        private final byte[] matches = new byte[names.size()];
+        private final StringHeap.View view = new StringHeap.View();
+
+        NameMatches(LikePattern pattern) {
+            this.pattern = pattern;
+        }
+
+        boolean matches(int code) {
+            if (code == StringDictionary.NULL) {
+                return false;
+            }
+            if (matches[code] == UNKNOWN) {
+                matches[code] = pattern.matches(names.chars(code, view)) ? MATCH : NO_MATCH;
+            }
+            return matches[code] == MATCH;
+        }
+    }
+}
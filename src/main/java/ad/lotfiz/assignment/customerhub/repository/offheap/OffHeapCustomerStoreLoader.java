@@ -0,0 +1,62 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@Profile("offheap")
+@RequiredArgsConstructor
+public class OffHeapCustomerStoreLoader implements ApplicationRunner {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final OffHeapCustomerStore store;
+    private final CustomerRepository customerRepository;
+
+    @Override
+    @WorkloadClass(Workload.BATCH)
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Pageable chunk = PageRequest.ofSize(CHUNK_SIZE);
+        Slice<CustomerEntity> customers = customerRepository.findAllByOrderByIdAsc(chunk);
+        customers.forEach(store::load);
+        while (customers.hasNext()) {
+            CustomerEntity last = customers.getContent().get(customers.getNumberOfElements() - 1);
+            customers = customerRepository.findByIdGreaterThanOrderByIdAsc(last.getId(), chunk);
+            customers.forEach(store::load);
+        }
+        store.loadCompleted();
+        log.info("Loaded {} customers into {} bytes off-heap in {} ms", store.size(), store.offHeapBytes(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!event.remote()) {
+            return;
+        }
+        // findAllById is not served by the store
+        List<CustomerEntity> customers = customerRepository.findAllById(List.of(event.customerId()));
+        if (customers.isEmpty()) {
+            store.remove(event.customerId());
+        } else {
+            store.put(customers.get(0));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// values in a string heap, a code -> reference array and a linear probing table of (hash, code + 1), all in
+// direct memory; codes are never reused; not thread safe
+class StringDictionary {
+
+    static final int NULL = -1;
+    private static final int SLOT_SIZE = 8;
+    private static final int HASH = 0;
+    private static final int CODE = 4;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final StringHeap values = new StringHeap();
+    private ByteBuffer references;
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    StringDictionary() {
+        clear();
+    }
+
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(encoded);
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        for (int code; (code = slots.getInt(slot * SLOT_SIZE + CODE) - 1) >= 0; slot = (slot + 1) & mask) {
+            if (slots.getInt(slot * SLOT_SIZE + HASH) == hash && values.equals(references.getLong(code * 8), encoded)) {
+                return code;
+            }
+        }
+        int code = size++;
+        if (code * 8 == references.capacity()) {
+            references = ByteBuffer.allocateDirect(references.capacity() * 2).put(references.clear());
+        }
+        references.putLong(code * 8, values.put(encoded));
+        slots.putInt(slot * SLOT_SIZE + HASH, hash).putInt(slot * SLOT_SIZE + CODE, code + 1);
+        if (size * 2L > capacity) {
+            resize(capacity * 2);
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        return code == NULL ? null : values.get(references.getLong(code * 8));
+    }
+
+    CharSequence chars(int code, StringHeap.View view) {
+        return values.chars(references.getLong(code * 8), view);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return values.bytes() + references.capacity() + slots.capacity();
+    }
+
+    void clear() {
+        values.clear();
+        references = ByteBuffer.allocateDirect(MIN_CAPACITY * 8);
+        capacity = MIN_CAPACITY * 2;
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        size = 0;
+    }
+
+    private void resize(int newCapacity) {
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        capacity = newCapacity;
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            int code = old.getInt(oldSlot * SLOT_SIZE + CODE);
+            if (code != 0) {
+                int hash = old.getInt(oldSlot * SLOT_SIZE + HASH);
+                int slot = hash & mask;
+                while (slots.getInt(slot * SLOT_SIZE + CODE) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.putInt(slot * SLOT_SIZE + HASH, hash).putInt(slot * SLOT_SIZE + CODE, code);
+            }
+        }
+    }
+
+    private static int hash(byte[] encoded) {
+        int h = Arrays.hashCode(encoded);
+        return h ^ (h >>> 16);
+    }
+}
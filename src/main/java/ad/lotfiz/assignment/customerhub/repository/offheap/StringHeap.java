@@ -0,0 +1,146 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// released strings are only reclaimed by copying the live ones into a new heap; not thread safe
+class StringHeap {
+
+    static final long NULL = -1;
+    static final int CHUNK_SIZE = 1 << 20;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long bytes;
+    private long garbageBytes;
+
+    long put(String value) {
+        return value == null ? NULL : put(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    long put(byte[] encoded) {
+        ByteBuffer chunk = chunkFor(encoded.length);
+        int offset = chunk.position();
+        chunk.putInt(encoded.length).put(encoded);
+        return reference(offset);
+    }
+
+    // copies the bytes of a string of another heap without decoding them
+    long copy(StringHeap from, long reference) {
+        if (reference == NULL) {
+            return NULL;
+        }
+        ByteBuffer source = from.chunks.get((int) (reference >>> 32));
+        int sourceOffset = (int) reference;
+        int length = source.getInt(sourceOffset);
+        ByteBuffer chunk = chunkFor(length);
+        int offset = chunk.position();
+        chunk.put(offset, source, sourceOffset, 4 + length).position(offset + 4 + length);
+        return reference(offset);
+    }
+
+    String get(long reference) {
+        if (reference == NULL) {
+            return null;
+        }
+        ByteBuffer chunk = chunks.get((int) (reference >>> 32));
+        int offset = (int) reference;
+        byte[] encoded = new byte[chunk.getInt(offset)];
+        chunk.get(offset + 4, encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    // an ascii string is read in place through the view, others are decoded
+    CharSequence chars(long reference, View view) {
+        ByteBuffer chunk = chunks.get((int) (reference >>> 32));
+        int offset = (int) reference;
+        int length = chunk.getInt(offset);
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(offset + 4 + i) < 0) {
+                return get(reference);
+            }
+        }
+        view.chunk = chunk;
+        view.offset = offset + 4;
+        view.length = length;
+        return view;
+    }
+
+    boolean equals(long reference, byte[] encoded) {
+        ByteBuffer chunk = chunks.get((int) (reference >>> 32));
+        int offset = (int) reference;
+        if (chunk.getInt(offset) != encoded.length) {
+            return false;
+        }
+        for (int i = 0; i < encoded.length; i++) {
+            if (chunk.get(offset + 4 + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void release(long reference) {
+        if (reference != NULL) {
+            garbageBytes += 4 + chunks.get((int) (reference >>> 32)).getInt((int) reference);
+        }
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    long garbageBytes() {
+        return garbageBytes;
+    }
+
+    void clear() {
+        chunks.clear();
+        bytes = 0;
+        garbageBytes = 0;
+    }
+
+    private ByteBuffer chunkFor(int length) {
+        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunk.remaining() < 4 + length) {
+            chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, 4 + length));
+            chunks.add(chunk);
+            bytes += chunk.capacity();
+        }
+        return chunk;
+    }
+
+    private long reference(int offset) {
+        return (long) (chunks.size() - 1) << 32 | offset;
+    }
+
+    static final class View implements CharSequence {
+
+        private ByteBuffer chunk;
+        private int offset;
+        private int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) chunk.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            byte[] ascii = new byte[length];
+            chunk.get(offset, ascii);
+            return new String(ascii, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import java.nio.ByteBuffer;
+
+// linear probing, removals shift the following entries back (no tombstones); not thread safe
+class UuidIndex {
+
+    private static final int SLOT_SIZE = 24;
+    private static final int MSB = 0;
+    private static final int LSB = 8;
+    private static final int RECORD = 16;
+    private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_SIZE);
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    UuidIndex(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    int get(long msb, long lsb) {
+        int mask = capacity - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int record = slots.getInt(slot * SLOT_SIZE + RECORD) - 1;
+            if (record < 0) {
+                return -1;
+            }
+            if (slots.getLong(slot * SLOT_SIZE + MSB) == msb && slots.getLong(slot * SLOT_SIZE + LSB) == lsb) {
+                return record;
+            }
+        }
+    }
+
+    void put(long msb, long lsb, int record) {
+        if ((size + 1) * 2L > capacity) {
+            resize(capacity * 2);
+        }
+        insert(msb, lsb, record);
+        size++;
+    }
+
+    int remove(long msb, long lsb) {
+        int mask = capacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (true) {
+            int record = slots.getInt(slot * SLOT_SIZE + RECORD) - 1;
+            if (record < 0) {
+                return -1;
+            }
+            if (slots.getLong(slot * SLOT_SIZE + MSB) == msb && slots.getLong(slot * SLOT_SIZE + LSB) == lsb) {
+                shiftBack(slot);
+                size--;
+                return record;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return (long) capacity * SLOT_SIZE;
+    }
+
+    // moves back the entries after the slot that probed past it
+    private void shiftBack(int empty) {
+        int mask = capacity - 1;
+        int slot = empty;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int record = slots.getInt(slot * SLOT_SIZE + RECORD);
+            if (record == 0) {
+                break;
+            }
+            long msb = slots.getLong(slot * SLOT_SIZE + MSB);
+            long lsb = slots.getLong(slot * SLOT_SIZE + LSB);
+            int home = hash(msb, lsb) & mask;
+            // the entry stays when its home slot lies cyclically in (empty, slot]
+            boolean stays = empty <= slot ? empty < home && home <= slot : empty < home || home <= slot;
+            if (!stays) {
+                slots.putLong(empty * SLOT_SIZE + MSB, msb).putLong(empty * SLOT_SIZE + LSB, lsb).putInt(empty * SLOT_SIZE + RECORD, record);
+                empty = slot;
+            }
+        }
+        slots.putLong(empty * SLOT_SIZE + MSB, 0).putLong(empty * SLOT_SIZE + LSB, 0).putInt(empty * SLOT_SIZE + RECORD, 0);
+    }
+
+    private void insert(long msb, long lsb, int record) {
+        int mask = capacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (slots.getInt(slot * SLOT_SIZE + RECORD) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots.putLong(slot * SLOT_SIZE + MSB, msb).putLong(slot * SLOT_SIZE + LSB, lsb).putInt(slot * SLOT_SIZE + RECORD, record + 1);
+    }
+
+    private void resize(int newCapacity) {
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("The off-heap index is limited to " + MAX_CAPACITY / 2 + " customers");
+        }
+        ByteBuffer old = slots;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int record = old.getInt(slot * SLOT_SIZE + RECORD);
+            if (record != 0) {
+                insert(old.getLong(slot * SLOT_SIZE + MSB), old.getLong(slot * SLOT_SIZE + LSB), record - 1);
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+    }
+
+    private static int hash(long msb, long lsb) {
+        // the finalizer of murmur3, version 4 ids are random already but other versions are not
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -3,43 +3,212 @@ package ad.lotfiz.assignment.customerhub.service;
 import ad.lotfiz.assignment.customerhub.exception.CustomerNotFoundException;
 import ad.lotfiz.assignment.customerhub.exception.FieldNotFoundException;
 import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchCriteria;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchOrder;
 import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.repository.CustomerSpecifications;
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import ad.lotfiz.assignment.customerhub.service.fuzzy.FuzzyNameMatcher;
 import ad.lotfiz.assignment.customerhub.service.mapper.CustomerMapper;
-import io.micrometer.core.annotation.Counted;
-import lombok.RequiredArgsConstructor;
+import ad.lotfiz.assignment.customerhub.service.metrics.CountedMethod;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Tuple;
 import lombok.extern.slf4j.Slf4j;
 import nl.customerhub.api.v1.model.CustomerListResponse;
 import nl.customerhub.api.v1.model.CustomerRequest;
 import nl.customerhub.api.v1.model.CustomerResponse;
 import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import nl.customerhub.api.v1.model.CustomerUpsertResult;
 import org.apache.logging.log4j.util.Strings;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CustomerService {
 
     private final CustomerMapper customerMapper;
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FuzzyNameMatcher fuzzyNameMatcher;
+    private final CountedMethod createNewCustomerCount;
+    private final CountedMethod deleteCount;
+    private final CountedMethod fetchCustomerCount;
+    private final CountedMethod listCount;
+    private final CountedMethod listAfterCount;
+    private final CountedMethod findByNameCount;
+    private final CountedMethod findByNameFuzzyCount;
+    private final CountedMethod searchCount;
+    private final CountedMethod findByEmailCount;
+    private final CountedMethod updateCount;
+    private final CountedMethod upsertByNameCount;
 
-    @Counted
+    public CustomerService(CustomerMapper customerMapper, CustomerRepository customerRepository, ApplicationEventPublisher eventPublisher,
+                           FuzzyNameMatcher fuzzyNameMatcher, MeterRegistry meterRegistry) {
+        this.customerMapper = customerMapper;
+        this.customerRepository = customerRepository;
+        this.eventPublisher = eventPublisher;
+        this.fuzzyNameMatcher = fuzzyNameMatcher;
+        this.createNewCustomerCount = new CountedMethod(meterRegistry, CustomerService.class, "createNewCustomer");
+        this.deleteCount = new CountedMethod(meterRegistry, CustomerService.class, "delete");
+        this.fetchCustomerCount = new CountedMethod(meterRegistry, CustomerService.class, "fetchCustomer");
+        this.listCount = new CountedMethod(meterRegistry, CustomerService.class, "list");
+        this.listAfterCount = new CountedMethod(meterRegistry, CustomerService.class, "listAfter");
+        this.findByNameCount = new CountedMethod(meterRegistry, CustomerService.class, "findByName");
+        this.findByNameFuzzyCount = new CountedMethod(meterRegistry, CustomerService.class, "findByNameFuzzy");
+        this.searchCount = new CountedMethod(meterRegistry, CustomerService.class, "search");
+        this.findByEmailCount = new CountedMethod(meterRegistry, CustomerService.class, "findByEmail");
+        this.updateCount = new CountedMethod(meterRegistry, CustomerService.class, "update");
+        this.upsertByNameCount = new CountedMethod(meterRegistry, CustomerService.class, "upsertByName");
+    }
+
+    @WorkloadClass(Workload.WRITE)
+    @Transactional
     public CustomerResponse createNewCustomer(CustomerRequest customerRequest) {
+        return createNewCustomerCount.record(() -> create(customerRequest));
+    }
+
+    @WorkloadClass(Workload.WRITE)
+    @Transactional
+    public void delete(String customerId) {
+        deleteCount.record(() -> {
+            CustomerEntity customerEntity = fetchOrThrow(customerId);
+            customerRepository.delete(customerEntity);
+            eventPublisher.publishEvent(new CustomerChangedEvent(customerEntity.getId(), CustomerChangedEvent.Change.DELETED));
+        });
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerResponse fetchCustomer(String uuid) {
+        return fetchCustomerCount.record(() -> fetch(uuid));
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerResponse fetchCustomer(String id, Set<CustomerField> fields) {
+        return fetchCustomerCount.record(() -> fetch(id, fields));
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerListResponse list(Pageable paging) {
+        return listCount.record(() -> listAll(paging));
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerListResponse list(Pageable paging, Set<CustomerField> fields) {
+        return listCount.record(() -> fields.containsAll(CustomerField.all())
+                ? listAll(paging)
+                : listProjected(paging, fields));
+    }
+
+    @WorkloadClass(Workload.BATCH)
+    public List<CustomerResponse> listAfter(String afterId, int limit, Set<CustomerField> fields) {
+        return listAfterCount.record(() -> {
+            UUID after = afterId == null ? null : UUID.fromString(afterId);
+            Pageable paging = PageRequest.of(0, limit, Sort.by(CustomerField.ID.getAttribute()));
+            return customerRepository.findProjected(CustomerSpecifications.idAfter(after), fields, paging)
+                    .stream()
+                    .map(tuple -> customerMapper.mapFromTuple(tuple, fields))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerListResponse findByName(String firstName, String lastName, Pageable paging) {
+        return findByNameCount.record(() -> findAllByName(firstName, lastName, paging));
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerListResponse findByName(String firstName, String lastName, Pageable paging, Set<CustomerField> fields) {
+        return findByNameCount.record(() -> fields.containsAll(CustomerField.all())
+                ? findAllByName(firstName, lastName, paging)
+                : findProjectedByName(firstName, lastName, paging, fields));
+    }
+
+    // closest names first
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerListResponse findByNameFuzzy(String firstName, String lastName, Pageable paging) {
+        return findByNameFuzzyCount.record(() -> {
+            List<CustomerResponse> customerResponses = fuzzyNameMatcher.find(firstName, lastName, paging)
+                    .stream()
+                    .map(customerMapper::mapFromCustomerEntity)
+                    .collect(Collectors.toList());
+
+            return new CustomerListResponse(paging.getPageNumber(), paging.getPageSize(), customerResponses);
+        });
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public CustomerListResponse search(CustomerSearchCriteria criteria, CustomerSearchOrder order, Pageable paging, Set<CustomerField> fields) {
+        return searchCount.record(() -> {
+            Pageable sortedPaging = PageRequest.of(paging.getPageNumber(), paging.getPageSize(), order.getSort());
+            log.debug("Request to search customers {} ordered by {} at page {}", criteria, order, sortedPaging);
+            List<Tuple> rows = customerRepository.findProjected(CustomerSpecifications.matching(criteria), fields, sortedPaging);
+
+            return toListResponse(rows, fields, sortedPaging);
+        });
+    }
+
+    // ignoring case and surrounding whitespace
+    @WorkloadClass(Workload.INTERACTIVE)
+    public List<CustomerResponse> findByEmail(String email) {
+        return findByEmailCount.record(() -> customerRepository.findByEmailNormalized(CustomerEntity.normalizeEmail(email))
+                .stream()
+                .map(customerMapper::mapFromCustomerEntity)
+                .collect(Collectors.toList()));
+    }
+
+    @WorkloadClass(Workload.WRITE)
+    @Transactional
+    public CustomerResponse update(String customerId, CustomerUpdateRequest updateRequest) {
+        return updateCount.record(() -> {
+            validateMandatoryFields(updateRequest);
+            CustomerEntity existingCustomer = fetchOrThrow(customerId);
+            updateCustomerEntity(existingCustomer, updateRequest);
+            existingCustomer.setUpdated(OffsetDateTime.now());
+            CustomerEntity updatedCustomer = customerRepository.saveAndFlush(existingCustomer);
+            eventPublisher.publishEvent(new CustomerChangedEvent(existingCustomer.getId(), CustomerChangedEvent.Change.UPDATED));
+            return customerMapper.mapFromCustomerEntity(updatedCustomer);
+        });
+    }
+
+    @WorkloadClass(Workload.WRITE)
+    @Transactional
+    public CustomerUpsertResult upsertByName(CustomerRequest customerRequest) {
+        return upsertByNameCount.record(() -> upsert(List.of(customerRequest)).get(0));
+    }
+
+    @WorkloadClass(Workload.BATCH)
+    @Transactional
+    public List<CustomerUpsertResult> upsertByName(List<CustomerRequest> customerRequests) {
+        return upsertByNameCount.record(() -> upsert(customerRequests));
+    }
+
+    private CustomerResponse create(CustomerRequest customerRequest) {
         validateMandatoryFields(customerRequest);
         CustomerEntity customerEntity = customerMapper.mapFromCustomerRequest(customerRequest);
         try {
             customerEntity.setCreated(OffsetDateTime.now());
             customerEntity.setUpdated(OffsetDateTime.now());
-            CustomerEntity saved = customerRepository.save(customerEntity);
+            // flushed, so a duplicate name fails here and not at the commit
+            CustomerEntity saved = customerRepository.saveAndFlush(customerEntity);
+            eventPublisher.publishEvent(new CustomerChangedEvent(saved.getId(), CustomerChangedEvent.Change.CREATED));
 
             return customerMapper.mapFromCustomerEntity(saved);
         } catch (DataIntegrityViolationException e) {
@@ -48,19 +217,21 @@ public class CustomerService {
         }
     }
 
-    @Counted
-    public void delete(String customerId) {
-        customerRepository.delete(fetchOrThrow(customerId));
-    }
-
-    @Counted
-    public CustomerResponse fetchCustomer(String uuid) {
+    private CustomerResponse fetch(String uuid) {
         return customerMapper.mapFromCustomerEntity(fetchOrThrow(uuid));
     }
 
+    private CustomerResponse fetch(String id, Set<CustomerField> fields) {
+        if (fields.containsAll(CustomerField.all())) {
+            return fetch(id);
+        }
+        UUID uuid = UUID.fromString(id);
+        return customerRepository.findProjectionById(uuid, fields)
+                .map(tuple -> customerMapper.mapFromTuple(tuple, fields))
+                .orElseThrow(() -> new CustomerNotFoundException(String.format("Customer %s not found", id)));
+    }
 
-    @Counted
-    public CustomerListResponse list(Pageable paging) {
+    private CustomerListResponse listAll(Pageable paging) {
         log.debug("Request to list all Student of page {}", paging);
 
         Page<CustomerEntity> all = customerRepository.findAll(paging);
@@ -72,8 +243,13 @@ public class CustomerService {
         return response;
     }
 
-    @Counted
-    public CustomerListResponse findByName(String firstName, String lastName, Pageable paging) {
+    private CustomerListResponse listProjected(Pageable paging, Set<CustomerField> fields) {
+        log.debug("Request to list fields {} of customers of page {}", fields, paging);
+
+        return toListResponse(customerRepository.findAllProjected(fields, paging), fields, paging);
+    }
+
+    private CustomerListResponse findAllByName(String firstName, String lastName, Pageable paging) {
         firstName = "%" + Optional.ofNullable(firstName).orElse("") + "%";
         lastName = "%" + Optional.ofNullable(lastName).orElse("") + "%";
         Page<CustomerEntity> customerEntities = customerRepository
@@ -90,14 +266,48 @@ public class CustomerService {
         );
     }
 
-    @Counted
-    public CustomerResponse update(String customerId, CustomerUpdateRequest updateRequest) {
-        validateMandatoryFields(updateRequest);
-        CustomerEntity existingCustomer = fetchOrThrow(customerId);
-        updateCustomerEntity(existingCustomer, updateRequest);
-        existingCustomer.setUpdated(OffsetDateTime.now());
-        CustomerEntity updatedCustomer = customerRepository.save(existingCustomer);
-        return customerMapper.mapFromCustomerEntity(updatedCustomer);
+    private CustomerListResponse findProjectedByName(String firstName, String lastName, Pageable paging, Set<CustomerField> fields) {
+        firstName = "%" + Optional.ofNullable(firstName).orElse("") + "%";
+        lastName = "%" + Optional.ofNullable(lastName).orElse("") + "%";
+        List<Tuple> rows = customerRepository.findProjectedByFirstNameLikeAndLastNameLike(firstName, lastName, fields, paging);
+
+        return toListResponse(rows, fields, paging);
+    }
+
+    private List<CustomerUpsertResult> upsert(List<CustomerRequest> customerRequests) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<CustomerEntity> proposed = customerRequests.stream()
+                .map(customerRequest -> {
+                    validateNaturalKey(customerRequest);
+                    validateMandatoryFields(customerRequest);
+                    CustomerEntity customerEntity = customerMapper.mapFromCustomerRequest(customerRequest);
+                    customerEntity.setId(UUID.randomUUID());
+                    customerEntity.setCreated(now);
+                    customerEntity.setUpdated(now);
+                    return customerEntity;
+                })
+                .toList();
+        List<CustomerEntity> stored = customerRepository.upsertByName(proposed);
+
+        List<CustomerUpsertResult> results = new ArrayList<>(stored.size());
+        for (int i = 0; i < stored.size(); i++) {
+            CustomerEntity customerEntity = stored.get(i);
+            boolean created = customerEntity.getId().equals(proposed.get(i).getId());
+            eventPublisher.publishEvent(new CustomerChangedEvent(customerEntity.getId(),
+                    created ? CustomerChangedEvent.Change.CREATED : CustomerChangedEvent.Change.UPDATED));
+            results.add(new CustomerUpsertResult(
+                    created ? CustomerUpsertResult.ResultEnum.CREATED : CustomerUpsertResult.ResultEnum.UPDATED,
+                    customerMapper.mapFromCustomerEntity(customerEntity)));
+        }
+        return results;
+    }
+
+    private CustomerListResponse toListResponse(List<Tuple> rows, Set<CustomerField> fields, Pageable paging) {
+        List<CustomerResponse> customerResponses = rows.stream()
+                .map(tuple -> customerMapper.mapFromTuple(tuple, fields))
+                .collect(Collectors.toList());
+
+        return new CustomerListResponse(paging.getPageNumber(), paging.getPageSize(), customerResponses);
     }
 
     private void updateCustomerEntity(CustomerEntity customerEntity, CustomerUpdateRequest updateRequest) {
@@ -116,6 +326,12 @@ public class CustomerService {
         }
     }
 
+    private static void validateNaturalKey(CustomerRequest customerRequest) {
+        if (Strings.isEmpty(customerRequest.getFirstName()) || Strings.isEmpty(customerRequest.getLastName())) {
+            throw new FieldNotFoundException("FirstName and LastName should be provided");
+        }
+    }
+
     private static void validateMandatoryFields(CustomerUpdateRequest customerRequest) {
         if (Strings.isEmpty(customerRequest.getAddress()) && Strings.isEmpty(customerRequest.getEmail())) {
             throw new FieldNotFoundException("Either Address or email should be provided");
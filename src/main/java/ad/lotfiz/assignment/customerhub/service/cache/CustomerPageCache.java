@@ -0,0 +1,77 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// keyed by the data version, so nothing is invalidated: pages of older versions are no longer asked for and get evicted
+@Component
+@ConditionalOnProperty(name = "customer-hub.cache.page.enabled", havingValue = "true")
+public class CustomerPageCache {
+
+    private final Cache<PageKey, byte[]> cache;
+    private final AtomicLong version = new AtomicLong();
+    private final int maximumPageSize;
+
+    public CustomerPageCache(MeterRegistry meterRegistry,
+                             @Value("${customer-hub.cache.page.maximum-size:16MB}") DataSize maximumSize,
+                             @Value("${customer-hub.cache.page.maximum-page-size:100}") int maximumPageSize,
+                             @Value("${customer-hub.cache.page.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.maximumPageSize = maximumPageSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .<PageKey, byte[]>weigher((key, page) -> page.length)
+                // bounds how long a missed invalidation can serve a stale page
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customerPages");
+        Gauge.builder("customerhub.cache.pages.hit.ratio", cache, pages -> pages.stats().hitRate())
+                .description("Share of the page requests answered from the cache")
+                .register(meterRegistry);
+        Gauge.builder("customerhub.cache.pages.bytes", cache, pages -> pages.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .description("Encoded pages held by the cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // to be taken before the page is read
+    public PageKey key(String query, List<String> parameters, int page, int size) {
+        return new PageKey(version.get(), query, parameters, page, size);
+    }
+
+    public Optional<byte[]> get(PageKey key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(PageKey key, byte[] page) {
+        if (key.size() <= maximumPageSize && key.version() == version.get()) {
+            cache.put(key, page);
+        }
+    }
+
+    public boolean isCacheable(int size) {
+        return size <= maximumPageSize;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public record PageKey(long version, String query, List<String> parameters, int page, int size) {
+    }
+}
@@ -0,0 +1,104 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// every eviction bumps the generation, a response read before an eviction is not cached
+@Slf4j
+@Component
+public class CustomerResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CustomerResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${customer-hub.cache.response.maximum-size:10000}") long maximumSize,
+                                 @Value("${customer-hub.cache.response.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.objectMapper = objectMapper;
+        // expiry bounds how long a missed invalidation can serve a stale customer
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customerResponses");
+    }
+
+    public Optional<CachedResponse> get(UUID customerId) {
+        return Optional.ofNullable(cache.getIfPresent(customerId));
+    }
+
+    // to be taken before the customer is read
+    public long generation() {
+        return generation.get();
+    }
+
+    public Optional<CachedResponse> put(long readGeneration, CustomerResponse response) {
+        try {
+            UUID customerId = UUID.fromString(response.getId());
+            long version = response.getUpdated() == null ? 0 : response.getUpdated().toInstant().toEpochMilli();
+            CachedResponse cached = new CachedResponse(objectMapper.writeValueAsBytes(response), etag(customerId, version));
+            if (generation.get() != readGeneration) {
+                return Optional.empty();
+            }
+            cache.put(customerId, cached);
+            // an eviction may have raced with the put
+            if (generation.get() != readGeneration) {
+                cache.invalidate(customerId);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not cache customer {}", response.getId(), e);
+            return Optional.empty();
+        }
+    }
+
+    public boolean restore(long readGeneration, UUID customerId, CachedResponse cached) {
+        if (generation.get() != readGeneration) {
+            return false;
+        }
+        cache.asMap().putIfAbsent(customerId, cached);
+        if (generation.get() != readGeneration) {
+            cache.invalidate(customerId);
+            return false;
+        }
+        return true;
+    }
+
+    public Map<UUID, CachedResponse> entries() {
+        return Map.copyOf(cache.asMap());
+    }
+
+    public void evict(UUID customerId) {
+        generation.incrementAndGet();
+        cache.invalidate(customerId);
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.change() != CustomerChangedEvent.Change.CREATED) {
+            evict(event.customerId());
+        }
+    }
+
+    private static String etag(UUID customerId, long version) {
+        return "\"" + customerId + "-" + Long.toHexString(version) + "\"";
+    }
+
+    public record CachedResponse(byte[] body, String etag) {
+    }
+}
@@ -0,0 +1,214 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache.CachedResponse;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+// format, big endian: int magic, int version, long build fingerprint, long snapshot time, int entries, then per entry
+// long msb, long lsb, short etag length + ASCII etag, int body length + body
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customer-hub.cache.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerResponseCacheSnapshot implements ApplicationRunner {
+
+    static final int MAGIC = 0x43485253;
+    static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+    private static final int RECONCILE_BATCH_SIZE = 1000;
+
+    private final CustomerResponseCache customerResponseCache;
+    private final CustomerRepository customerRepository;
+    private final MeterRegistry meterRegistry;
+    private final Path file;
+    private final long fingerprint;
+    private volatile boolean warmedUp;
+
+    public CustomerResponseCacheSnapshot(CustomerResponseCache customerResponseCache, CustomerRepository customerRepository,
+                                         MeterRegistry meterRegistry, ObjectMapper objectMapper, ObjectProvider<BuildProperties> buildProperties,
+                                         @Value("${customer-hub.cache.snapshot.file:${java.io.tmpdir}/customer-hub/customer-responses.snapshot}") Path file) {
+        this.customerResponseCache = customerResponseCache;
+        this.customerRepository = customerRepository;
+        this.meterRegistry = meterRegistry;
+        this.file = file;
+        BuildProperties build = buildProperties.getIfAvailable();
+        this.fingerprint = fingerprint(objectMapper, build == null ? "" : build.getVersion());
+    }
+
+    @Override
+    @WorkloadClass(Workload.BATCH)
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    public int warmUp() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "failed";
+        int restored = 0;
+        try {
+            if (Files.exists(file)) {
+                restored = load();
+                result = restored < 0 ? "discarded" : "loaded";
+                restored = Math.max(0, restored);
+            } else {
+                result = "missing";
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Customer response cache snapshot {} is not loaded", file, e);
+        } finally {
+            long nanos = sample.stop(Timer.builder("customerhub.cache.warmup")
+                    .description("Time to load the customer response cache snapshot at startup")
+                    .tag("result", result)
+                    .register(meterRegistry));
+            warmedUp = true;
+            log.info("Customer response cache warm-up {}: {} entries in {} ms", result, restored, Duration.ofNanos(nanos).toMillis());
+        }
+        return restored;
+    }
+
+    @Scheduled(fixedDelayString = "${customer-hub.cache.snapshot.interval:PT5M}", initialDelayString = "${customer-hub.cache.snapshot.interval:PT5M}")
+    public void write() throws IOException {
+        if (!warmedUp) {
+            // the cache is still empty, keep the snapshot of the previous node
+            return;
+        }
+        // taken before the entries are read, an entry cached later is at least as recent
+        Instant taken = Instant.now();
+        List<Entry> entries = new ArrayList<>();
+        long size = HEADER_SIZE;
+        for (Map.Entry<UUID, CachedResponse> cached : customerResponseCache.entries().entrySet()) {
+            Entry entry = new Entry(cached.getKey(), cached.getValue().etag().getBytes(StandardCharsets.US_ASCII), cached.getValue().body());
+            entries.add(entry);
+            size += entry.size();
+        }
+        if (size > Integer.MAX_VALUE) {
+            log.warn("Customer response cache of {} bytes is too large for a snapshot", size);
+            return;
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(fingerprint).putLong(taken.toEpochMilli()).putInt(entries.size());
+            for (Entry entry : entries) {
+                buffer.putLong(entry.id().getMostSignificantBits()).putLong(entry.id().getLeastSignificantBits());
+                buffer.putShort((short) entry.etag().length).put(entry.etag());
+                buffer.putInt(entry.body().length).put(entry.body());
+            }
+            buffer.force();
+        }
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Customer response cache snapshot of {} entries ({} bytes) written", entries.size(), size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            write();
+        } catch (IOException e) {
+            log.warn("Customer response cache snapshot {} is not written", file, e);
+        }
+    }
+
+    // -1 when the snapshot was written by a build with another response schema
+    private int load() throws IOException {
+        Map<UUID, CachedResponse> entries;
+        Instant taken;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a customer response cache snapshot of version " + VERSION);
+            }
+            if (buffer.getLong() != fingerprint) {
+                log.info("Customer response cache snapshot {} was written by another build and is discarded", file);
+                return -1;
+            }
+            taken = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(buffer.getLong(), buffer.getLong());
+                byte[] etag = new byte[buffer.getShort()];
+                buffer.get(etag);
+                byte[] body = new byte[buffer.getInt()];
+                buffer.get(body);
+                entries.put(id, new CachedResponse(body, new String(etag, StandardCharsets.US_ASCII)));
+            }
+        }
+
+        // taken before the reconciliation, a customer changed meanwhile stops the restore
+        long generation = customerResponseCache.generation();
+        OffsetDateTime since = OffsetDateTime.ofInstant(taken.minus(CLOCK_SKEW), ZoneOffset.UTC);
+        List<UUID> ids = new ArrayList<>(entries.keySet());
+        int restored = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(ids.size(), from + RECONCILE_BATCH_SIZE));
+            for (UUID id : customerRepository.findIdsNotUpdatedSince(batch, since)) {
+                if (!customerResponseCache.restore(generation, id, entries.get(id))) {
+                    log.info("Customers changed during the warm-up, {} of {} snapshot entries are restored", restored, entries.size());
+                    return restored;
+                }
+                restored++;
+            }
+        }
+        return restored;
+    }
+
+    // the bodies are served as they were written, so they must have been written with the same response schema
+    static long fingerprint(ObjectMapper objectMapper, String buildVersion) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        StringBuilder schema = new StringBuilder(buildVersion)
+                .append(';').append(config.getSerializationFeatures())
+                .append(';').append(config.getDefaultPropertyInclusion());
+        for (BeanPropertyDefinition property : config.introspect(config.constructType(CustomerResponse.class)).findProperties()) {
+            schema.append(';').append(property.getName()).append(':').append(property.getRawPrimaryType().getName());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(schema.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private record Entry(UUID id, byte[] etag, byte[] body) {
+
+        long size() {
+            return 8 + 8 + 2 + etag.length + 4 + body.length;
+        }
+    }
+}
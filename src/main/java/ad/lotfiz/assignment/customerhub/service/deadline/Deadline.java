@@ -0,0 +1,18 @@
+package ad.lotfiz.assignment.customerhub.service.deadline;
+
+import java.time.Duration;
+
+public record Deadline(String endpoint, long deadlineNanos) {
+
+    public static Deadline after(String endpoint, Duration timeout) {
+        return new Deadline(endpoint, System.nanoTime() + timeout.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,14 @@
+package ad.lotfiz.assignment.customerhub.service.event;
+
+import java.util.UUID;
+
+public record CustomerChangedEvent(UUID customerId, Change change, boolean remote) {
+
+    public CustomerChangedEvent(UUID customerId, Change change) {
+        this(customerId, change, false);
+    }
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,149 @@
+package ad.lotfiz.assignment.customerhub.service.export;
+
+import ad.lotfiz.assignment.customerhub.exception.ExportNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.ExportNotReadyException;
+import ad.lotfiz.assignment.customerhub.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class CustomerExportService {
+
+    private final CustomerExportWriter exportWriter;
+    private final Path directory;
+    private final Duration retention;
+    private final Duration retryAfter;
+    private final ExecutorService executor;
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public CustomerExportService(CustomerExportWriter exportWriter, MeterRegistry meterRegistry,
+                                 @Value("${customer-hub.export.directory:${java.io.tmpdir}/customer-hub-exports}") Path directory,
+                                 @Value("${customer-hub.export.max-concurrent:2}") int maxConcurrent,
+                                 @Value("${customer-hub.export.queue-capacity:10}") int queueCapacity,
+                                 @Value("${customer-hub.export.retention:24h}") Duration retention,
+                                 @Value("${customer-hub.export.retry-after:30s}") Duration retryAfter) throws IOException {
+        this.exportWriter = exportWriter;
+        this.directory = Files.createDirectories(directory);
+        deleteEarlierExports(this.directory);
+        this.retention = retention;
+        this.retryAfter = retryAfter;
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("customer-export-"));
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPool, "customerExports");
+    }
+
+    public ExportJob start(ExportFormat format, ExportCompression compression) {
+        UUID id = UUID.randomUUID();
+        ExportJob job = new ExportJob(id, format, compression, directory.resolve(id + "." + format.getExtension() + compression.getExtension()),
+                OffsetDateTime.now());
+        jobs.put(id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new ServiceOverloadedException("Too many exports are running, retry later", retryAfter);
+        }
+        log.info("Export {} of customers as {} ({}) is queued", id, format, compression);
+        return job;
+    }
+
+    public ExportJob find(String exportId) {
+        ExportJob job = null;
+        try {
+            job = jobs.get(UUID.fromString(exportId));
+        } catch (IllegalArgumentException e) {
+            // not an export id
+        }
+        if (job == null) {
+            throw new ExportNotFoundException(String.format("Export %s not found", exportId));
+        }
+        return job;
+    }
+
+    public ExportJob findCompleted(String exportId) {
+        ExportJob job = find(exportId);
+        if (job.getStatus() != ExportJob.Status.COMPLETED) {
+            throw new ExportNotReadyException(String.format("Export %s is %s", exportId, job.getStatus().name().toLowerCase()));
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        Path part = job.getFile().resolveSibling(job.getFile().getFileName() + ".part");
+        try {
+            exportWriter.write(job, part);
+            Files.move(part, job.getFile(), StandardCopyOption.ATOMIC_MOVE);
+            job.completed(Files.size(job.getFile()));
+            log.info("Export {} completed, {} customers in {} bytes", job.getId(), job.getRowsWritten(), job.getFileSize().orElse(0L));
+        } catch (Exception e) {
+            log.warn("Export {} failed", job.getId(), e);
+            job.failed(e.getMessage());
+            delete(part);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${customer-hub.export.purge-interval:PT10M}")
+    public void purge() {
+        OffsetDateTime expiry = OffsetDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.getCompleted().map(completed -> completed.isBefore(expiry)).orElse(false);
+            if (expired) {
+                delete(job.getFile());
+            }
+            return expired;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Export file {} is not deleted", file, e);
+        }
+    }
+
+    // the jobs are only kept in memory, the files of an earlier run cannot be downloaded
+    private static void deleteEarlierExports(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> isExportFile(file.getFileName().toString())).forEach(CustomerExportService::delete);
+        }
+    }
+
+    private static boolean isExportFile(String fileName) {
+        int extension = fileName.indexOf('.');
+        try {
+            UUID.fromString(extension < 0 ? fileName : fileName.substring(0, extension));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
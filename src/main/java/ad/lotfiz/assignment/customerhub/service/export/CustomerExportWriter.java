@@ -0,0 +1,147 @@
+package ad.lotfiz.assignment.customerhub.service.export;
+
+import ad.lotfiz.assignment.customerhub.service.streaming.CustomerJsonStreamWriter;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// read in id order a chunk at a time, so no cursor or transaction is held for the whole export
+@Component
+@RequiredArgsConstructor
+public class CustomerExportWriter {
+
+    static final int CHUNK_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SELECT_CUSTOMERS = "select id, first_name, last_name, age, address, email, created, updated from customers";
+    private static final String FIRST_CHUNK = SELECT_CUSTOMERS + " order by id limit ?";
+    private static final String NEXT_CHUNK = SELECT_CUSTOMERS + " where id > ? order by id limit ?";
+    private static final String CSV_HEADER = "id,firstName,lastName,age,address,email,created,updated\r\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @WorkloadClass(Workload.BATCH)
+    public void write(ExportJob job, Path target) throws IOException {
+        Long total = jdbcTemplate.queryForObject("select count(*) from customers", Long.class);
+        job.running(total == null ? 0 : total);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(job.getCompression().wrap(Channels.newOutputStream(channel), BUFFER_SIZE), BUFFER_SIZE)) {
+            if (job.getFormat() == ExportFormat.NDJSON) {
+                writeNdjson(job, out);
+            } else {
+                writeCsv(job, out);
+            }
+        }
+    }
+
+    private void writeNdjson(ExportJob job, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8).setCodec(objectMapper)) {
+            generator.setRootValueSeparator(null);
+            readAll(rs -> {
+                CustomerJsonStreamWriter.writeCustomer(generator, rs);
+                generator.writeRaw('\n');
+                job.rowWritten();
+            });
+        }
+    }
+
+    private void writeCsv(ExportJob job, OutputStream out) throws IOException {
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write(CSV_HEADER);
+            readAll(rs -> {
+                writer.write(CustomerJsonStreamWriter.toUuid(rs.getBytes("id")).toString());
+                writer.write(',');
+                writer.write(csv(rs.getString("first_name")));
+                writer.write(',');
+                writer.write(csv(rs.getString("last_name")));
+                writer.write(',');
+                int age = rs.getInt("age");
+                if (!rs.wasNull()) {
+                    writer.write(Integer.toString(age));
+                }
+                writer.write(',');
+                writer.write(csv(rs.getString("address")));
+                writer.write(',');
+                writer.write(csv(rs.getString("email")));
+                writer.write(',');
+                writer.write(timestamp(rs.getObject("created", OffsetDateTime.class)));
+                writer.write(',');
+                writer.write(timestamp(rs.getObject("updated", OffsetDateTime.class)));
+                writer.write("\r\n");
+                job.rowWritten();
+            });
+        }
+    }
+
+    private void readAll(RowWriter rowWriter) throws IOException {
+        AtomicReference<Object> lastId = new AtomicReference<>();
+        AtomicInteger rows = new AtomicInteger();
+        RowCallbackHandler handler = rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // the raw id (bytes on MySQL, uuid on H2) is bound as is for the next chunk
+            lastId.set(rs.getObject("id"));
+            rows.incrementAndGet();
+        };
+        try {
+            do {
+                rows.set(0);
+                if (lastId.get() == null) {
+                    jdbcTemplate.query(FIRST_CHUNK, handler, CHUNK_SIZE);
+                } else {
+                    jdbcTemplate.query(NEXT_CHUNK, handler, lastId.get(), CHUNK_SIZE);
+                }
+            } while (rows.get() == CHUNK_SIZE);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // RFC 4180 quoting
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String timestamp(OffsetDateTime time) {
+        return time == null ? "" : DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+}
@@ -0,0 +1,31 @@
+package ad.lotfiz.assignment.customerhub.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public enum ExportCompression {
+    GZIP(".gz", "application/gzip"),
+    NONE("", null);
+
+    private final String extension;
+    private final String contentType;
+
+    ExportCompression(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // null when it is the content type of the format
+    public String getContentType() {
+        return contentType;
+    }
+
+    OutputStream wrap(OutputStream out, int bufferSize) throws IOException {
+        return this == GZIP ? new GZIPOutputStream(out, bufferSize) : out;
+    }
+}
@@ -0,0 +1,119 @@
+package ad.lotfiz.assignment.customerhub.service.export;
+
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final UUID id;
+    private final ExportFormat format;
+    private final ExportCompression compression;
+    private final Path file;
+    private final OffsetDateTime created;
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private volatile Status status = Status.QUEUED;
+    private volatile Long rowsTotal;
+    private volatile Long fileSize;
+    private volatile OffsetDateTime completed;
+    private volatile String error;
+
+    ExportJob(UUID id, ExportFormat format, ExportCompression compression, Path file, OffsetDateTime created) {
+        this.id = id;
+        this.format = format;
+        this.compression = compression;
+        this.file = file;
+        this.created = created;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public ExportCompression getCompression() {
+        return compression;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getFileName() {
+        return "customers-" + id + "." + format.getExtension() + compression.getExtension();
+    }
+
+    public String getContentType() {
+        return compression.getContentType() != null ? compression.getContentType() : format.getContentType();
+    }
+
+    public OffsetDateTime getCreated() {
+        return created;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public Optional<Long> getRowsTotal() {
+        return Optional.ofNullable(rowsTotal);
+    }
+
+    // estimated with the number of customers when the export started
+    public Optional<Double> getProgress() {
+        if (status == Status.COMPLETED) {
+            return Optional.of(1.0);
+        }
+        Long total = rowsTotal;
+        if (total == null) {
+            return Optional.empty();
+        }
+        return Optional.of(total == 0 ? 0.0 : Math.min(1.0, (double) rowsWritten.get() / total));
+    }
+
+    public Optional<Long> getFileSize() {
+        return Optional.ofNullable(fileSize);
+    }
+
+    public Optional<OffsetDateTime> getCompleted() {
+        return Optional.ofNullable(completed);
+    }
+
+    public Optional<String> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    void running(long total) {
+        rowsTotal = total;
+        status = Status.RUNNING;
+    }
+
+    void rowWritten() {
+        rowsWritten.incrementAndGet();
+    }
+
+    void completed(long size) {
+        fileSize = size;
+        completed = OffsetDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String reason) {
+        error = reason;
+        completed = OffsetDateTime.now();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,116 @@
+package ad.lotfiz.assignment.customerhub.service.fuzzy;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.model.PhoneticKeys;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.repository.CustomerSpecifications;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class FuzzyNameMatcher {
+
+    private static final Sort NAME_ORDER = Sort.by("lastName", "firstName");
+    private static final Set<CustomerField> RANKED_FIELDS = EnumSet.of(CustomerField.ID, CustomerField.FIRST_NAME, CustomerField.LAST_NAME);
+
+    private final CustomerRepository customerRepository;
+    private final int maxCandidates;
+    private final boolean rerank;
+
+    public FuzzyNameMatcher(CustomerRepository customerRepository,
+                            @Value("${customer-hub.fuzzy.max-candidates:1000}") int maxCandidates,
+                            @Value("${customer-hub.fuzzy.rerank:true}") boolean rerank) {
+        this.customerRepository = customerRepository;
+        this.maxCandidates = maxCandidates;
+        this.rerank = rerank;
+    }
+
+    public List<CustomerEntity> find(String firstName, String lastName, Pageable paging) {
+        boolean hasFirstName = firstName != null && !firstName.isBlank();
+        boolean hasLastName = lastName != null && !lastName.isBlank();
+        if (!hasFirstName && !hasLastName) {
+            throw new IllegalArgumentException("A fuzzy search needs a first or last name");
+        }
+        Set<String> firstNameKeys = PhoneticKeys.candidates(firstName);
+        Set<String> lastNameKeys = PhoneticKeys.candidates(lastName);
+        if ((hasFirstName && firstNameKeys.isEmpty()) || (hasLastName && lastNameKeys.isEmpty())) {
+            return List.of();
+        }
+        if (!rerank) {
+            return candidates(firstNameKeys, lastNameKeys, PageRequest.of(paging.getPageNumber(), paging.getPageSize(), NAME_ORDER));
+        }
+        if (paging.getOffset() + paging.getPageSize() > maxCandidates) {
+            throw new IllegalArgumentException(String.format("A fuzzy search ranks the first %d candidates, page %d of size %d is past them",
+                    maxCandidates, paging.getPageNumber(), paging.getPageSize()));
+        }
+        // ranked on the names only, the customers of the page are loaded afterwards
+        List<Tuple> candidates = customerRepository.findProjected(CustomerSpecifications.phoneticKeysIn(lastNameKeys, firstNameKeys),
+                RANKED_FIELDS, PageRequest.of(0, maxCandidates, NAME_ORDER));
+        List<UUID> ids = candidates.stream()
+                .map(candidate -> new Ranked(candidate.get("id", UUID.class),
+                        distance(firstName, candidate.get("firstName", String.class)) + distance(lastName, candidate.get("lastName", String.class))))
+                .sorted(Comparator.comparingInt(Ranked::distance))
+                .skip(paging.getOffset())
+                .limit(paging.getPageSize())
+                .map(Ranked::id)
+                .toList();
+        Map<UUID, CustomerEntity> customers = customerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(CustomerEntity::getId, Function.identity()));
+        // a customer deleted in between is left out
+        return ids.stream().map(customers::get).filter(Objects::nonNull).toList();
+    }
+
+    private List<CustomerEntity> candidates(Set<String> firstNameKeys, Set<String> lastNameKeys, Pageable paging) {
+        if (lastNameKeys.isEmpty()) {
+            return customerRepository.findByFirstNamePhoneticIn(firstNameKeys, paging);
+        }
+        if (firstNameKeys.isEmpty()) {
+            return customerRepository.findByLastNamePhoneticIn(lastNameKeys, paging);
+        }
+        return customerRepository.findByLastNamePhoneticInAndFirstNamePhoneticIn(lastNameKeys, firstNameKeys, paging);
+    }
+
+    // case insensitive Levenshtein distance, 0 when no name was asked for
+    static int distance(String asked, String name) {
+        if (asked == null || asked.isBlank()) {
+            return 0;
+        }
+        String a = asked.trim().toLowerCase(Locale.ROOT);
+        String b = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private record Ranked(UUID id, int distance) {
+    }
+}
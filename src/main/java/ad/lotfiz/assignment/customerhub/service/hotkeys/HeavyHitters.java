@@ -0,0 +1,68 @@
+package ad.lotfiz.assignment.customerhub.service.hotkeys;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// only a key entering the top takes the lock
+public class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int k;
+    private final Map<String, Long> top = new ConcurrentHashMap<>();
+    // the smallest count of the top once it is full, a key must exceed it to enter
+    private volatile long threshold;
+
+    public HeavyHitters(int k, int depth, int width) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.sketch = new CountMinSketch(depth, width);
+    }
+
+    public void add(String key) {
+        long estimate = sketch.add(key);
+        if (top.computeIfPresent(key, (tracked, count) -> Math.max(count, estimate)) != null || estimate <= threshold) {
+            return;
+        }
+        synchronized (this) {
+            if (top.containsKey(key)) {
+                top.merge(key, estimate, Math::max);
+                return;
+            }
+            if (top.size() >= k) {
+                Map.Entry<String, Long> smallest = smallest();
+                if (estimate <= smallest.getValue()) {
+                    threshold = smallest.getValue();
+                    return;
+                }
+                top.remove(smallest.getKey());
+            }
+            top.put(key, estimate);
+            threshold = top.size() < k ? 0 : smallest().getValue();
+        }
+    }
+
+    public synchronized void decay() {
+        sketch.decay();
+        top.replaceAll((key, count) -> count >>> 1);
+        top.values().removeIf(count -> count == 0);
+        threshold = top.size() < k ? 0 : smallest().getValue();
+    }
+
+    public List<HotKey> top() {
+        return top.entrySet().stream()
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HotKey::count).reversed().thenComparing(HotKey::key))
+                .toList();
+    }
+
+    private Map.Entry<String, Long> smallest() {
+        return top.entrySet().stream().min(Map.Entry.comparingByValue()).orElseThrow();
+    }
+
+    public record HotKey(String key, long count) {
+    }
+}
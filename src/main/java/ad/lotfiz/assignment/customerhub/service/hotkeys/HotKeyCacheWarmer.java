@@ -0,0 +1,50 @@
+package ad.lotfiz.assignment.customerhub.service.hotkeys;
+
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache;
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HeavyHitters.HotKey;
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HotKeyTracker.Kind;
+import ad.lotfiz.assignment.customerhub.service.mapper.CustomerMapper;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customer-hub.hotkeys.prewarm.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class HotKeyCacheWarmer {
+
+    private final HotKeyTracker hotKeyTracker;
+    private final CustomerResponseCache customerResponseCache;
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+
+    @Scheduled(fixedDelayString = "${customer-hub.hotkeys.prewarm.interval:PT1M}",
+            initialDelayString = "${customer-hub.hotkeys.prewarm.interval:PT1M}")
+    @WorkloadClass(Workload.BATCH)
+    public int prewarm() {
+        List<UUID> missing = hotKeyTracker.top(Kind.READS).stream()
+                .map(HotKey::key)
+                .map(UUID::fromString)
+                .filter(id -> customerResponseCache.get(id).isEmpty())
+                .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        long generation = customerResponseCache.generation();
+        int cached = (int) customerRepository.findAllById(missing).stream()
+                .map(customerMapper::mapFromCustomerEntity)
+                .filter(response -> customerResponseCache.put(generation, response).isPresent())
+                .count();
+        log.debug("Pre-warmed {} of {} hot customers", cached, missing.size());
+        return cached;
+    }
+}
@@ -0,0 +1,62 @@
+package ad.lotfiz.assignment.customerhub.service.hotkeys;
+
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HeavyHitters.HotKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "customer-hub.hotkeys.enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeyTracker {
+
+    private final Map<Kind, HeavyHitters> heavyHitters = new EnumMap<>(Kind.class);
+
+    public HotKeyTracker(@Value("${customer-hub.hotkeys.top:50}") int top,
+                         @Value("${customer-hub.hotkeys.sketch-depth:4}") int depth,
+                         @Value("${customer-hub.hotkeys.sketch-width:4096}") int width) {
+        for (Kind kind : Kind.values()) {
+            heavyHitters.put(kind, new HeavyHitters(top, depth, width));
+        }
+    }
+
+    public void read(UUID customerId) {
+        heavyHitters.get(Kind.READS).add(customerId.toString());
+    }
+
+    public void write(UUID customerId) {
+        heavyHitters.get(Kind.WRITES).add(customerId.toString());
+    }
+
+    public void search(String... names) {
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                heavyHitters.get(Kind.SEARCHES).add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    public List<HotKey> top(Kind kind) {
+        return heavyHitters.get(kind).top();
+    }
+
+    @Scheduled(fixedDelayString = "${customer-hub.hotkeys.decay-interval:PT1M}",
+            initialDelayString = "${customer-hub.hotkeys.decay-interval:PT1M}")
+    public void decay() {
+        heavyHitters.values().forEach(HeavyHitters::decay);
+    }
+
+    public enum Kind {
+        READS, WRITES, SEARCHES;
+
+        public String id() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ad.lotfiz.assignment.customerhub.service.hotkeys;
+
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HeavyHitters.HotKey;
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HotKeyTracker.Kind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "hotkeys")
+@ConditionalOnProperty(name = "customer-hub.hotkeys.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @ReadOperation
+    public Map<String, List<HotKey>> hotKeys() {
+        Map<String, List<HotKey>> hotKeys = new LinkedHashMap<>();
+        for (Kind kind : Kind.values()) {
+            hotKeys.put(kind.id(), hotKeyTracker.top(kind));
+        }
+        return hotKeys;
+    }
+
+    // null is a 404 for an unknown kind
+    @ReadOperation
+    public List<HotKey> hotKeys(@Selector String kind) {
+        return Arrays.stream(Kind.values())
+                .filter(candidate -> candidate.id().equals(kind))
+                .findFirst()
+                .map(hotKeyTracker::top)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,87 @@
+package ad.lotfiz.assignment.customerhub.service.idempotency;
+
+import ad.lotfiz.assignment.customerhub.model.IdempotencyRecordEntity;
+import ad.lotfiz.assignment.customerhub.repository.IdempotencyRecordRepository;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customer-hub.idempotency.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final long maximumSize;
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository,
+                                    @Value("${customer-hub.idempotency.maximum-size:100000}") long maximumSize) {
+        this.repository = repository;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String idempotencyKey) {
+        return repository.findById(idempotencyKey)
+                .map(entity -> new StoredResponse(entity.getRequestHash(), entity.getResponse(), entity.getExpires()));
+    }
+
+    @Override
+    public boolean reserve(String idempotencyKey, StoredResponse reservation) {
+        try {
+            insert(idempotencyKey, reservation);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key {} is already stored", idempotencyKey);
+            return false;
+        }
+    }
+
+    @Override
+    public void save(String idempotencyKey, StoredResponse response) {
+        if (repository.complete(idempotencyKey, response.response(), response.expires()) == 0) {
+            // the reservation expired and was purged meanwhile
+            insert(idempotencyKey, response);
+        }
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        repository.deleteInProgress(idempotencyKey);
+    }
+
+    private void insert(String idempotencyKey, StoredResponse response) {
+        repository.findById(idempotencyKey)
+                .filter(existing -> existing.getExpires().isBefore(OffsetDateTime.now()))
+                .ifPresent(repository::delete);
+        repository.insert(IdempotencyRecordEntity.builder()
+                .idempotencyKey(idempotencyKey)
+                .requestHash(response.requestHash())
+                .response(response.response())
+                .created(OffsetDateTime.now())
+                .expires(response.expires())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${customer-hub.idempotency.purge-interval:PT10M}")
+    @WorkloadClass(Workload.BATCH)
+    public void purge() {
+        int expired = repository.deleteExpired(OffsetDateTime.now());
+        long excess = repository.count() - maximumSize;
+        if (excess > 0) {
+            List<String> oldest = repository.findOldestKeys(PageRequest.of(0, (int) Math.min(excess, Integer.MAX_VALUE)));
+            repository.deleteAllByIdInBatch(oldest);
+        }
+        log.debug("Purged {} expired and {} excess idempotency keys", expired, Math.max(0, excess));
+    }
+}
@@ -0,0 +1,94 @@
+package ad.lotfiz.assignment.customerhub.service.idempotency;
+
+import ad.lotfiz.assignment.customerhub.exception.IdempotencyKeyInProgressException;
+import ad.lotfiz.assignment.customerhub.exception.IdempotencyKeyReusedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTimeout;
+
+    public IdempotencyService(IdempotencyStore store,
+                              ObjectMapper objectMapper,
+                              @Value("${customer-hub.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${customer-hub.idempotency.in-progress-timeout:PT30S}") Duration inProgressTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inProgressTimeout = inProgressTimeout;
+    }
+
+    // a reservation that is neither remembered nor released is taken over after the in-progress timeout
+    public <T> Optional<T> reserve(String idempotencyKey, Object request, Class<T> responseType) {
+        String requestHash = hash(request);
+        if (store.reserve(idempotencyKey, new StoredResponse(requestHash, null, OffsetDateTime.now().plus(inProgressTimeout)))) {
+            return Optional.empty();
+        }
+        // released by a failed request after the reservation was refused, the client retries
+        StoredResponse stored = store.find(idempotencyKey).orElseThrow(() -> inProgress(idempotencyKey));
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(String.format("Idempotency-Key %s is already used for a different request", idempotencyKey));
+        }
+        if (stored.isInProgress()) {
+            throw inProgress(idempotencyKey);
+        }
+        log.info("Replaying the response of idempotency key {}", idempotencyKey);
+        try {
+            return Optional.of(objectMapper.readValue(stored.response(), responseType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the request has completed, a failure is logged and not thrown
+    public void remember(String idempotencyKey, Object request, Object response) {
+        try {
+            byte[] encoded = objectMapper.writeValueAsBytes(response);
+            store.save(idempotencyKey, new StoredResponse(hash(request), encoded, OffsetDateTime.now().plus(ttl)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Could not store the response of idempotency key {}, a retry after {} executes the request again",
+                    idempotencyKey, inProgressTimeout, e);
+        }
+    }
+
+    public void release(String idempotencyKey) {
+        try {
+            store.release(idempotencyKey);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}, it is taken over after {}", idempotencyKey, inProgressTimeout, e);
+        }
+    }
+
+    private static IdempotencyKeyInProgressException inProgress(String idempotencyKey) {
+        return new IdempotencyKeyInProgressException(String.format("A request with Idempotency-Key %s is still running", idempotencyKey));
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ad.lotfiz.assignment.customerhub.service.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    Optional<StoredResponse> find(String idempotencyKey);
+
+    boolean reserve(String idempotencyKey, StoredResponse reservation);
+
+    void save(String idempotencyKey, StoredResponse response);
+
+    // the response of a request that completed stays
+    void release(String idempotencyKey);
+}
@@ -0,0 +1,46 @@
+package ad.lotfiz.assignment.customerhub.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "customer-hub.idempotency.store", havingValue = "memory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, StoredResponse> cache;
+
+    public InMemoryIdempotencyStore(@Value("${customer-hub.idempotency.maximum-size:100000}") long maximumSize,
+                                    @Value("${customer-hub.idempotency.ttl:PT24H}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String idempotencyKey) {
+        return Optional.ofNullable(cache.getIfPresent(idempotencyKey));
+    }
+
+    @Override
+    public boolean reserve(String idempotencyKey, StoredResponse reservation) {
+        return cache.asMap().compute(idempotencyKey,
+                (key, existing) -> existing == null || existing.isExpired() ? reservation : existing) == reservation;
+    }
+
+    @Override
+    public void save(String idempotencyKey, StoredResponse response) {
+        cache.put(idempotencyKey, response);
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        cache.asMap().computeIfPresent(idempotencyKey, (key, existing) -> existing.isInProgress() ? null : existing);
+    }
+}
@@ -0,0 +1,14 @@
+package ad.lotfiz.assignment.customerhub.service.idempotency;
+
+import java.time.OffsetDateTime;
+
+public record StoredResponse(String requestHash, byte[] response, OffsetDateTime expires) {
+
+    public boolean isInProgress() {
+        return response == null;
+    }
+
+    public boolean isExpired() {
+        return expires.isBefore(OffsetDateTime.now());
+    }
+}
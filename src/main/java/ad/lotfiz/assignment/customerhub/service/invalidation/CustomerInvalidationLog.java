@@ -0,0 +1,135 @@
+package ad.lotfiz.assignment.customerhub.service.invalidation;
+
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// an id that is missing holds the position until it shows up or for at most gap-timeout
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customer-hub.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerInvalidationLog {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration gapTimeout;
+    private final Timer lag;
+    private final Counter applied;
+    // ids above the position that are applied already
+    private final TreeSet<Long> appliedIds = new TreeSet<>();
+    private long position;
+    private long gapSince;
+
+    public CustomerInvalidationLog(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                                   @Value("${customer-hub.invalidation.batch-size:1000}") int batchSize,
+                                   @Value("${customer-hub.invalidation.retention:PT1H}") Duration retention,
+                                   @Value("${customer-hub.invalidation.gap-timeout:PT10S}") Duration gapTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+        this.lag = Timer.builder("customerhub.invalidation.lag")
+                .description("Time from a change of a customer on another node until it is applied on this node")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.applied = Counter.builder("customerhub.invalidation.applied")
+                .description("Changes of customers on other nodes applied on this node")
+                .register(meterRegistry);
+    }
+
+    // the caches are empty or reconciled with the database at startup
+    @PostConstruct
+    synchronized void start() {
+        Long last = jdbcTemplate.queryForObject("select max(id) from customer_invalidations", Long.class);
+        position = last == null ? 0 : last;
+    }
+
+    // in the transaction of the change, so both commit or neither; inserted just before the commit so the id is
+    // rarely taken longer than the gap-timeout before it becomes visible
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        jdbcTemplate.update("insert into customer_invalidations (customer_id, change_type, node_id, created) values (?, ?, ?, ?)",
+                toBytes(event.customerId()), event.change().name(), nodeId, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${customer-hub.invalidation.poll-interval:PT1S}")
+    public synchronized void poll() {
+        List<Invalidation> invalidations = jdbcTemplate.query(
+                "select id, customer_id, change_type, node_id, created from customer_invalidations where id > ? order by id limit ?",
+                (rs, rowNum) -> new Invalidation(rs.getLong("id"), fromBytes(rs.getBytes("customer_id")),
+                        CustomerChangedEvent.Change.valueOf(rs.getString("change_type")), rs.getString("node_id"), rs.getLong("created")),
+                position, batchSize);
+        for (Invalidation invalidation : invalidations) {
+            if (appliedIds.add(invalidation.id()) && !nodeId.equals(invalidation.nodeId())) {
+                eventPublisher.publishEvent(new CustomerChangedEvent(invalidation.customerId(), invalidation.change(), true));
+                lag.record(Math.max(0, System.currentTimeMillis() - invalidation.created()), TimeUnit.MILLISECONDS);
+                applied.increment();
+            }
+        }
+        advance();
+    }
+
+    private void advance() {
+        while (!appliedIds.isEmpty()) {
+            if (appliedIds.first() == position + 1) {
+                position = appliedIds.pollFirst();
+                gapSince = 0;
+            } else if (gapSince == 0) {
+                gapSince = System.nanoTime();
+                return;
+            } else if (System.nanoTime() - gapSince > gapTimeout.toNanos()) {
+                log.warn("Skipped the missing invalidations {} to {}", position + 1, appliedIds.first() - 1);
+                position = appliedIds.first() - 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${customer-hub.invalidation.purge-interval:PT10M}")
+    @WorkloadClass(Workload.BATCH)
+    public void purge() {
+        int purged = jdbcTemplate.update("delete from customer_invalidations where created < ?",
+                System.currentTimeMillis() - retention.toMillis());
+        log.debug("Purged {} invalidations", purged);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private record Invalidation(long id, UUID customerId, CustomerChangedEvent.Change change, String nodeId, long created) {
+    }
+}
@@ -1,19 +1,46 @@
 package ad.lotfiz.assignment.customerhub.service.mapper;
 
 import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import jakarta.persistence.Tuple;
 import nl.customerhub.api.v1.model.CustomerRequest;
 import nl.customerhub.api.v1.model.CustomerResponse;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
+import java.time.OffsetDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Mapper(componentModel = "spring")
 public interface CustomerMapper {
 
+    @Mapping(target = "emailNormalized", ignore = true)
+    @Mapping(target = "emailDomain", ignore = true)
+    @Mapping(target = "firstNamePhonetic", ignore = true)
+    @Mapping(target = "lastNamePhonetic", ignore = true)
     CustomerEntity mapFromCustomerRequest(CustomerRequest customerRequest);
     CustomerResponse mapFromCustomerEntity(CustomerEntity customerEntity);
 
     default String mapFromUuid(UUID theId){
         return theId.toString();
     }
+
+    default CustomerResponse mapFromTuple(Tuple tuple, Set<CustomerField> fields) {
+        CustomerResponse response = new CustomerResponse();
+        for (CustomerField field : fields) {
+            String alias = field.getAttribute();
+            switch (field) {
+                case ID -> response.setId(mapFromUuid(tuple.get(alias, UUID.class)));
+                case FIRST_NAME -> response.setFirstName(tuple.get(alias, String.class));
+                case LAST_NAME -> response.setLastName(tuple.get(alias, String.class));
+                case AGE -> response.setAge(tuple.get(alias, Integer.class));
+                case ADDRESS -> response.setAddress(tuple.get(alias, String.class));
+                case EMAIL -> response.setEmail(tuple.get(alias, String.class));
+                case CREATED -> response.setCreated(tuple.get(alias, OffsetDateTime.class));
+                case UPDATED -> response.setUpdated(tuple.get(alias, OffsetDateTime.class));
+            }
+        }
+        return response;
+    }
 }
@@ -0,0 +1,63 @@
+package ad.lotfiz.assignment.customerhub.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// overloads share the counters of their name
+public final class CountedMethod {
+
+    static final String NAME = "method.counted";
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Counter success;
+    private final ConcurrentMap<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+    public CountedMethod(MeterRegistry registry, Class<?> type, String method) {
+        this.registry = registry;
+        this.tags = Tags.of("class", type.getName(), "method", method);
+        this.success = counter("success", "none");
+    }
+
+    public <T> T record(Supplier<T> call) {
+        if (MethodMetersContext.isSuppressed()) {
+            return call.get();
+        }
+        try {
+            T result = call.get();
+            success();
+            return result;
+        } catch (RuntimeException | Error e) {
+            failure(e);
+            throw e;
+        }
+    }
+
+    public void record(Runnable call) {
+        record(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    void success() {
+        success.increment();
+    }
+
+    void failure(Throwable e) {
+        failures.computeIfAbsent(e.getClass(), exception -> counter("failure", exception.getSimpleName())).increment();
+    }
+
+    private Counter counter(String result, String exception) {
+        return Counter.builder(NAME)
+                .tags(tags)
+                .tag("result", result)
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,24 @@
+package ad.lotfiz.assignment.customerhub.service.metrics;
+
+import java.util.function.Supplier;
+
+public final class MethodMetersContext {
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private MethodMetersContext() {
+    }
+
+    public static <T> T unrecorded(Supplier<T> call) {
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return call.get();
+        } finally {
+            SUPPRESSED.remove();
+        }
+    }
+
+    static boolean isSuppressed() {
+        return SUPPRESSED.get() != null;
+    }
+}
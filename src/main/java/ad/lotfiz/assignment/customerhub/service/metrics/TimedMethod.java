@@ -0,0 +1,71 @@
+package ad.lotfiz.assignment.customerhub.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public final class TimedMethod {
+
+    static final String NAME = "method.timed";
+
+    private final MeterRegistry registry;
+    private final Tags tags;
+    private final Timer success;
+    private final ConcurrentMap<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+    public TimedMethod(MeterRegistry registry, Class<?> type, String method) {
+        this.registry = registry;
+        this.tags = Tags.of("class", type.getName(), "method", method);
+        this.success = timer("none");
+    }
+
+    public <T> T record(Supplier<T> call) {
+        if (MethodMetersContext.isSuppressed()) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            success(start);
+            return result;
+        } catch (RuntimeException | Error e) {
+            failure(start, e);
+            throw e;
+        }
+    }
+
+    public void record(Runnable call) {
+        record(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    // a call answered without running the method, e.g. from a cache, started at System.nanoTime() start
+    public void recordSince(long start) {
+        if (!MethodMetersContext.isSuppressed()) {
+            success(start);
+        }
+    }
+
+    void success(long start) {
+        success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    void failure(long start, Throwable e) {
+        failures.computeIfAbsent(e.getClass(), exception -> timer(exception.getSimpleName()))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String exception) {
+        return Timer.builder(NAME)
+                .tags(tags)
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
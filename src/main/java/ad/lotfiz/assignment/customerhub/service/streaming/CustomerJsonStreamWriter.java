@@ -0,0 +1,105 @@
+package ad.lotfiz.assignment.customerhub.service.streaming;
+
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class CustomerJsonStreamWriter {
+
+    private static final String SELECT_CUSTOMERS = "select id, first_name, last_name, age, address, email, created, updated from customers";
+    private static final String LIST_CUSTOMERS = SELECT_CUSTOMERS + " limit ? offset ?";
+    private static final String FIND_CUSTOMERS = SELECT_CUSTOMERS + " where first_name like ? and last_name like ? limit ? offset ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public void writeList(Pageable paging, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            writePageStart(generator, paging);
+            jdbcTemplate.query(LIST_CUSTOMERS, rowWriter(generator), paging.getPageSize(), paging.getOffset());
+            writePageEnd(generator);
+        }
+    }
+
+    @WorkloadClass(Workload.INTERACTIVE)
+    public void writeFindByName(String firstName, String lastName, Pageable paging, OutputStream out) throws IOException {
+        String firstNamePattern = "%" + Optional.ofNullable(firstName).orElse("") + "%";
+        String lastNamePattern = "%" + Optional.ofNullable(lastName).orElse("") + "%";
+        try (JsonGenerator generator = createGenerator(out)) {
+            writePageStart(generator, paging);
+            jdbcTemplate.query(FIND_CUSTOMERS, rowWriter(generator), firstNamePattern, lastNamePattern, paging.getPageSize(), paging.getOffset());
+            writePageEnd(generator);
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        // the ObjectMapper is the codec, so that the dates are formatted exactly as in the regular responses
+        return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8).setCodec(objectMapper);
+    }
+
+    private static void writePageStart(JsonGenerator generator, Pageable paging) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("page", paging.getPageNumber());
+        generator.writeNumberField("size", paging.getPageSize());
+        generator.writeArrayFieldStart("content");
+    }
+
+    private static void writePageEnd(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static RowCallbackHandler rowWriter(JsonGenerator generator) {
+        return rs -> {
+            try {
+                writeCustomer(generator, rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    public static void writeCustomer(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeStringField("id", toUuid(rs.getBytes("id")).toString());
+        generator.writeObjectField("created", rs.getObject("created", OffsetDateTime.class));
+        generator.writeObjectField("updated", rs.getObject("updated", OffsetDateTime.class));
+        generator.writeStringField("firstName", rs.getString("first_name"));
+        generator.writeStringField("lastName", rs.getString("last_name"));
+        int age = rs.getInt("age");
+        if (rs.wasNull()) {
+            generator.writeNullField("age");
+        } else {
+            generator.writeNumberField("age", age);
+        }
+        generator.writeStringField("address", rs.getString("address"));
+        generator.writeStringField("email", rs.getString("email"));
+        generator.writeEndObject();
+    }
+
+    // binary(16) on MySQL, a native uuid on H2, both read as the 16 raw bytes
+    public static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
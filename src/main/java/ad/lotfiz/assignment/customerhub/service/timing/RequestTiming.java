@@ -0,0 +1,66 @@
+package ad.lotfiz.assignment.customerhub.service.timing;
+
+import java.util.Locale;
+
+// calls nested in a call of the same kind are part of the outer one
+public final class RequestTiming {
+
+    private final long start = System.nanoTime();
+    private final Segment repository = new Segment();
+    private final Segment mapper = new Segment();
+    private final Segment json = new Segment();
+
+    public Segment repository() {
+        return repository;
+    }
+
+    public Segment mapper() {
+        return mapper;
+    }
+
+    public Segment json() {
+        return json;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+
+    public String toServerTiming(long totalNanos) {
+        return String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d %s\", mapping;dur=%.3f, json;dur=%.3f, total;dur=%.3f",
+                millis(repository.nanos), repository.calls, repository.calls == 1 ? "call" : "calls", millis(mapper.nanos), millis(json.nanos), millis(totalNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public static final class Segment {
+
+        private long nanos;
+        private int calls;
+        private boolean active;
+
+        public boolean start() {
+            if (active) {
+                return false;
+            }
+            active = true;
+            return true;
+        }
+
+        public void stop(long callNanos) {
+            active = false;
+            nanos += callNanos;
+            calls++;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        public int calls() {
+            return calls;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ad.lotfiz.assignment.customerhub.service.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// order -1, after the ExposeInvocationInterceptor, or the this() pointcut of the repository does not match
+@Aspect
+@Component
+@Order(-1)
+@ConditionalOnProperty(name = "customer-hub.server-timing.enabled", havingValue = "true")
+public class RequestTimingAspect {
+
+    @Around("this(ad.lotfiz.assignment.customerhub.repository.CustomerRepository)")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Optional<RequestTiming> timing = RequestTimingContext.current();
+        return timing.isPresent() ? time(joinPoint, timing.get().repository()) : joinPoint.proceed();
+    }
+
+    @Around("this(ad.lotfiz.assignment.customerhub.service.mapper.CustomerMapper)")
+    public Object mapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        Optional<RequestTiming> timing = RequestTimingContext.current();
+        return timing.isPresent() ? time(joinPoint, timing.get().mapper()) : joinPoint.proceed();
+    }
+
+    private static Object time(ProceedingJoinPoint joinPoint, RequestTiming.Segment segment) throws Throwable {
+        if (!segment.start()) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            segment.stop(System.nanoTime() - start);
+        }
+    }
+}
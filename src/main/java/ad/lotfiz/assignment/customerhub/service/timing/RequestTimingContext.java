@@ -0,0 +1,23 @@
+package ad.lotfiz.assignment.customerhub.service.timing;
+
+import java.util.Optional;
+
+public final class RequestTimingContext {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private RequestTimingContext() {
+    }
+
+    public static Optional<RequestTiming> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void set(RequestTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
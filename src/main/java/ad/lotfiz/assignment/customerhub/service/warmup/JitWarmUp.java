@@ -0,0 +1,172 @@
+package ad.lotfiz.assignment.customerhub.service.warmup;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.mapper.CustomerMapper;
+import ad.lotfiz.assignment.customerhub.service.metrics.MethodMetersContext;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import ad.lotfiz.assignment.customerhub.service.workload.WorkloadClass;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerRequest;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "customer-hub.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class JitWarmUp implements ApplicationRunner {
+
+    static final int ROUND = 100;
+    static final int CUSTOMERS = 20;
+    private static final Pageable PAGE = PageRequest.of(0, CUSTOMERS);
+    private static final Set<CustomerField> PROJECTION = EnumSet.of(CustomerField.ID, CustomerField.FIRST_NAME, CustomerField.LAST_NAME);
+
+    private final CustomerService customerService;
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int iterations;
+    private final Duration maxDuration;
+    private volatile Result result = new Result(0, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+
+    public JitWarmUp(CustomerService customerService, CustomerRepository customerRepository, CustomerMapper customerMapper,
+                     ObjectMapper objectMapper, EntityManager entityManager, PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${customer-hub.warmup.iterations:2000}") int iterations,
+                     @Value("${customer-hub.warmup.max-duration:30s}") Duration maxDuration) {
+        this.customerService = customerService;
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+        TimeGauge.builder("customerhub.jit.warmup.duration", this, TimeUnit.NANOSECONDS, warmUp -> warmUp.result.duration().toNanos())
+                .description("Time of the JIT warm-up at startup")
+                .register(meterRegistry);
+        Gauge.builder("customerhub.jit.warmup.iterations", this, warmUp -> warmUp.result.iterations())
+                .description("Iterations of the hot paths run by the JIT warm-up")
+                .register(meterRegistry);
+        TimeGauge.builder("customerhub.jit.warmup.iteration.time", this, TimeUnit.NANOSECONDS, warmUp -> warmUp.result.firstRound().toNanos())
+                .description("Mean time of a warm-up iteration")
+                .tag("round", "first")
+                .register(meterRegistry);
+        TimeGauge.builder("customerhub.jit.warmup.iteration.time", this, TimeUnit.NANOSECONDS, warmUp -> warmUp.result.lastRound().toNanos())
+                .description("Mean time of a warm-up iteration")
+                .tag("round", "last")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @WorkloadClass(Workload.BATCH)
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    public Result warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        int done = 0;
+        long firstRound = 0;
+        long lastRound = 0;
+        try {
+            while (done < iterations && System.nanoTime() < deadline) {
+                int round = Math.min(ROUND, iterations - done);
+                long nanos = MethodMetersContext.unrecorded(() -> transactionTemplate.execute(status -> {
+                    status.setRollbackOnly();
+                    customerRepository.saveAllAndFlush(customers());
+                    long roundStart = System.nanoTime();
+                    for (int iteration = 0; iteration < round; iteration++) {
+                        iteration();
+                    }
+                    return System.nanoTime() - roundStart;
+                }));
+                lastRound = nanos / round;
+                firstRound = done == 0 ? lastRound : firstRound;
+                done += round;
+            }
+        } catch (RuntimeException e) {
+            log.warn("JIT warm-up failed after {} iterations", done, e);
+        }
+        result = new Result(done, Duration.ofNanos(System.nanoTime() - start), Duration.ofNanos(firstRound), Duration.ofNanos(lastRound));
+        log.info("JIT warm-up ran {} iterations in {} ms, an iteration took {} us in the first round and {} us in the last",
+                done, result.duration().toMillis(), firstRound / 1000, lastRound / 1000);
+        return result;
+    }
+
+    private void iteration() {
+        // the customers are read from the database, not from the persistence context
+        entityManager.clear();
+        CustomerListResponse page = customerService.list(PAGE);
+        serialize(page);
+        serialize(customerService.list(PAGE, PROJECTION));
+        for (CustomerResponse customer : page.getContent()) {
+            serialize(customerService.fetchCustomer(customer.getId()));
+        }
+        if (!page.getContent().isEmpty()) {
+            CustomerResponse first = page.getContent().get(0);
+            serialize(customerService.findByName(first.getFirstName(), first.getLastName(), PAGE));
+            serialize(customerService.fetchCustomer(first.getId(), PROJECTION));
+        }
+    }
+
+    private void serialize(Object response) {
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // unique names, the warm-ups of other nodes may insert at the same time
+    private List<CustomerEntity> customers() {
+        String lastName = "Warmup-" + UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        return IntStream.range(0, CUSTOMERS)
+                .mapToObj(i -> {
+                    CustomerEntity customer = customerMapper.mapFromCustomerRequest(new CustomerRequest()
+                            .firstName("Warmup" + i)
+                            .lastName(lastName)
+                            .age(18 + i)
+                            .address("Warmup street " + i)
+                            .email("warmup" + i + "@example.com"));
+                    customer.setCreated(now);
+                    customer.setUpdated(now);
+                    return customer;
+                })
+                .toList();
+    }
+
+    public record Result(int iterations, Duration duration, Duration firstRound, Duration lastRound) {
+    }
+}
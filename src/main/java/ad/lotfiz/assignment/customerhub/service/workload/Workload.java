@@ -0,0 +1,7 @@
+package ad.lotfiz.assignment.customerhub.service.workload;
+
+public enum Workload {
+    INTERACTIVE,
+    WRITE,
+    BATCH
+}
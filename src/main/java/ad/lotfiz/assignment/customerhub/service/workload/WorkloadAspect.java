@@ -0,0 +1,27 @@
+package ad.lotfiz.assignment.customerhub.service.workload;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// tags the workload before a transaction takes its connection
+@Aspect
+@Component
+@Order(0)
+public class WorkloadAspect {
+
+    @Around("@annotation(workloadClass)")
+    public Object tag(ProceedingJoinPoint joinPoint, WorkloadClass workloadClass) throws Throwable {
+        if (WorkloadContext.isSet()) {
+            return joinPoint.proceed();
+        }
+        WorkloadContext.set(workloadClass.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.clear();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ad.lotfiz.assignment.customerhub.service.workload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// the outer workload is kept for nested calls
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface WorkloadClass {
+
+    Workload value();
+}
@@ -0,0 +1,28 @@
+package ad.lotfiz.assignment.customerhub.service.workload;
+
+public final class WorkloadContext {
+
+    public static final Workload DEFAULT = Workload.WRITE;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload == null ? DEFAULT : workload;
+    }
+
+    static boolean isSet() {
+        return CURRENT.get() != null;
+    }
+
+    static void set(Workload workload) {
+        CURRENT.set(workload);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
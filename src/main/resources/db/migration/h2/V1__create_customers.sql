@@ -0,0 +1,13 @@
+create table customers
+(
+    id         uuid                     not null,
+    first_name varchar(255),
+    last_name  varchar(255),
+    age        integer,
+    address    varchar(255),
+    email      varchar(255),
+    created    timestamp(6) with time zone not null,
+    updated    timestamp(6) with time zone not null,
+    primary key (id),
+    constraint uk_customers_name unique (first_name, last_name)
+);
@@ -0,0 +1,11 @@
+create table idempotency_keys
+(
+    idempotency_key varchar(255)                not null,
+    request_hash    varchar(64)                 not null,
+    response        blob                        not null,
+    created         timestamp(6) with time zone not null,
+    expires         timestamp(6) with time zone not null,
+    primary key (idempotency_key)
+);
+
+create index idx_idempotency_keys_expires on idempotency_keys (expires);
@@ -0,0 +1,5 @@
+create index idx_customers_last_name on customers (last_name, first_name);
+
+create index idx_customers_email on customers (email);
+
+create index idx_customers_updated on customers (updated);
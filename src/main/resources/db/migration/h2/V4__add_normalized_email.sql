@@ -0,0 +1,6 @@
+alter table customers
+    add column email_normalized varchar(255) generated always as (lower(trim(email)));
+
+create index idx_customers_email_normalized on customers (email_normalized);
+
+drop index idx_customers_email;
@@ -0,0 +1,9 @@
+alter table customers
+    add column email_domain varchar(255) generated always as (regexp_replace(lower(trim(email)), '^.*@', ''));
+
+create index idx_customers_email_domain on customers (email_domain);
+
+-- the updated order of the search ties on id, which innodb secondary indexes carry implicitly
+drop index idx_customers_updated;
+
+create index idx_customers_updated on customers (updated, id);
@@ -0,0 +1,7 @@
+alter table customers add column first_name_phonetic varchar(16);
+
+alter table customers add column last_name_phonetic varchar(16);
+
+create index idx_customers_name_phonetic on customers (last_name_phonetic, first_name_phonetic);
+
+create index idx_customers_first_name_phonetic on customers (first_name_phonetic);
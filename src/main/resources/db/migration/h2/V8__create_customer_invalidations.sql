@@ -0,0 +1,11 @@
+create table customer_invalidations
+(
+    id          bigint auto_increment not null,
+    customer_id binary(16)            not null,
+    change_type varchar(16)           not null,
+    node_id     varchar(36)           not null,
+    created     bigint                not null,
+    primary key (id)
+);
+
+create index idx_customer_invalidations_created on customer_invalidations (created);
@@ -0,0 +1,15 @@
+-- the customers table as created by hibernate (ddl-auto) before the schema was migrated,
+-- existing databases are baselined at this version
+create table customers
+(
+    id         binary(16)   not null,
+    first_name varchar(255),
+    last_name  varchar(255),
+    age        integer,
+    address    varchar(255),
+    email      varchar(255),
+    created    datetime(6)  not null,
+    updated    datetime(6)  not null,
+    primary key (id),
+    constraint uk_customers_name unique (first_name, last_name)
+) engine = InnoDB;
@@ -0,0 +1,11 @@
+-- may already exist in databases baselined at V1 that hibernate updated
+create table if not exists idempotency_keys
+(
+    idempotency_key varchar(255) not null,
+    request_hash    varchar(64)  not null,
+    response        longblob     not null,
+    created         datetime(6)  not null,
+    expires         datetime(6)  not null,
+    primary key (idempotency_key),
+    index idx_idempotency_keys_expires (expires)
+) engine = InnoDB;
@@ -0,0 +1,13 @@
+-- online index builds: the table stays readable and writable while the indexes are built
+
+-- last name prefix searches (and the name order within a last name)
+alter table customers
+    add index idx_customers_last_name (last_name, first_name), algorithm = inplace, lock = none;
+
+-- exact email lookups
+alter table customers
+    add index idx_customers_email (email), algorithm = inplace, lock = none;
+
+-- change scans: customers updated after a point in time
+alter table customers
+    add index idx_customers_updated (updated), algorithm = inplace, lock = none;
@@ -0,0 +1,11 @@
+-- exact, case insensitive email lookups: a virtual generated column is computed from email (no table rebuild)
+-- and stored in its index only, idx_customers_email_normalized replaces the index on the raw email
+alter table customers
+    add column email_normalized varchar(255) generated always as (lower(trim(email))) virtual,
+    algorithm = inplace, lock = none;
+
+alter table customers
+    add index idx_customers_email_normalized (email_normalized), algorithm = inplace, lock = none;
+
+alter table customers
+    drop index idx_customers_email, algorithm = inplace, lock = none;
@@ -0,0 +1,8 @@
+-- email domain filters of the customer search: the domain is a virtual generated column with its own index,
+-- so a domain is an index probe instead of a '%@domain' scan
+alter table customers
+    add column email_domain varchar(255) generated always as (substring_index(lower(trim(email)), '@', -1)) virtual,
+    algorithm = inplace, lock = none;
+
+alter table customers
+    add index idx_customers_email_domain (email_domain), algorithm = inplace, lock = none;
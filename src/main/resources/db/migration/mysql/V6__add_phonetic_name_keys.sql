@@ -0,0 +1,12 @@
+-- fuzzy name search: double metaphone keys of the names, computed by the application (see PhoneticKeys)
+-- and backfilled by the V7 java migration
+alter table customers
+    add column first_name_phonetic varchar(16),
+    add column last_name_phonetic varchar(16),
+    algorithm = inplace, lock = none;
+
+alter table customers
+    add index idx_customers_name_phonetic (last_name_phonetic, first_name_phonetic), algorithm = inplace, lock = none;
+
+alter table customers
+    add index idx_customers_first_name_phonetic (first_name_phonetic), algorithm = inplace, lock = none;
@@ -0,0 +1,12 @@
+-- changes of customers, polled by every node to invalidate its caches (see CustomerInvalidationLog)
+-- created is the epoch millisecond on the writing node, rows are purged after a retention
+create table customer_invalidations
+(
+    id          bigint auto_increment not null,
+    customer_id binary(16)            not null,
+    change_type varchar(16)           not null,
+    node_id     varchar(36)           not null,
+    created     bigint                not null,
+    primary key (id),
+    index idx_customer_invalidations_created (created)
+) engine = InnoDB;
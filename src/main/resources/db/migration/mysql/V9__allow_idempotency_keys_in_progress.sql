@@ -0,0 +1,2 @@
+-- a key without a response is reserved by a request that is still running
+alter table idempotency_keys modify response longblob null;
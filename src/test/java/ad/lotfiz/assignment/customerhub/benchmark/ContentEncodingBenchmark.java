@@ -0,0 +1,89 @@
+package ad.lotfiz.assignment.customerhub.benchmark;
+
+import ad.lotfiz.assignment.customerhub.RandomGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ContentEncoding
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentEncodingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private CustomerListResponse page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper = switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+        List<CustomerResponse> content = IntStream.range(0, pageSize)
+                .mapToObj(i -> RandomGenerator.randomCustomerResponse())
+                .toList();
+        page = new CustomerListResponse(0, pageSize, content);
+        encoded = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encode(Size size) throws IOException {
+        size.pageBytes = encoded.length;
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public CustomerListResponse decode(Size size) throws IOException {
+        size.pageBytes = encoded.length;
+        return objectMapper.readValue(encoded, CustomerListResponse.class);
+    }
+
+    // reported next to the score as encode:pageBytes and decode:pageBytes
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+
+        public long pageBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pageBytes = 0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ad.lotfiz.assignment.customerhub.benchmark;
+
+import ad.lotfiz.assignment.customerhub.CustomerHubApplication;
+import ad.lotfiz.assignment.customerhub.RandomGenerator;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import nl.customerhub.grpc.v1.Customer;
+import nl.customerhub.grpc.v1.CustomerHubGrpc;
+import nl.customerhub.grpc.v1.CustomerPage;
+import nl.customerhub.grpc.v1.GetCustomerRequest;
+import nl.customerhub.grpc.v1.ListCustomersRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=GrpcVersusRest
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GrpcVersusRestBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ManagedChannel channel;
+    private CustomerHubGrpc.CustomerHubBlockingStub stub;
+    private HttpRequest restGet;
+    private HttpRequest restList;
+    private GetCustomerRequest grpcGet;
+    private ListCustomersRequest grpcList;
+
+    @Setup
+    public void setUp() throws IOException {
+        int httpPort = freePort();
+        int grpcPort = freePort();
+        context = new SpringApplicationBuilder(CustomerHubApplication.class)
+                .run("--server.port=" + httpPort,
+                        "--grpc.server.port=" + grpcPort,
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        IntStream.range(0, PAGE_SIZE).forEach(i -> customerRepository.save(RandomGenerator.randomCustomerEntity()));
+        UUID id = customerRepository.findAll().get(0).getId();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        restGet = HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/customers/" + id)).GET().build();
+        restList = HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/customers?page=0&size=" + PAGE_SIZE)).GET().build();
+
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+        stub = CustomerHubGrpc.newBlockingStub(channel);
+        grpcGet = GetCustomerRequest.newBuilder().setId(id.toString()).build();
+        grpcList = ListCustomersRequest.newBuilder().setPage(0).setSize(PAGE_SIZE).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] restGetCustomer() throws IOException, InterruptedException {
+        return httpClient.send(restGet, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public Customer grpcGetCustomer() {
+        return stub.getCustomer(grpcGet);
+    }
+
+    @Benchmark
+    public byte[] restListCustomers() throws IOException, InterruptedException {
+        return httpClient.send(restList, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    @Benchmark
+    public CustomerPage grpcListCustomers() {
+        return stub.listCustomers(grpcList);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ad.lotfiz.assignment.customerhub.benchmark;
+
+import ad.lotfiz.assignment.customerhub.CustomerHubApplication;
+import ad.lotfiz.assignment.customerhub.RandomGenerator;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.streaming.CustomerJsonStreamWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ListPageStreaming
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ListPageStreamingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private CustomerJsonStreamWriter customerJsonStreamWriter;
+    private ObjectMapper objectMapper;
+    private Pageable paging;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CustomerHubApplication.class)
+                .run("--server.port=0",
+                        "--grpc.server.port=-1",
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        customerRepository.saveAll(IntStream.range(0, pageSize).mapToObj(i -> RandomGenerator.randomCustomerEntity()).toList());
+        customerService = context.getBean(CustomerService.class);
+        customerJsonStreamWriter = context.getBean(CustomerJsonStreamWriter.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        paging = PageRequest.of(0, pageSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void entitiesAndJackson() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), customerService.list(paging));
+    }
+
+    @Benchmark
+    public void resultSetStreaming() throws IOException {
+        customerJsonStreamWriter.writeList(paging, OutputStream.nullOutputStream());
+    }
+}
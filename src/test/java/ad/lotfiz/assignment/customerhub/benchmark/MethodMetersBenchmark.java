@@ -0,0 +1,140 @@
+package ad.lotfiz.assignment.customerhub.benchmark;
+
+import ad.lotfiz.assignment.customerhub.service.metrics.CountedMethod;
+import ad.lotfiz.assignment.customerhub.service.metrics.TimedMethod;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.CountedAspect;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=MethodMeters
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MethodMetersBenchmark {
+
+    private Controller annotated;
+    private Controller direct;
+    private Controller none;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry annotatedRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        AspectJProxyFactory serviceProxy = new AspectJProxyFactory(new AnnotatedService());
+        serviceProxy.setProxyTargetClass(true);
+        serviceProxy.addAspect(new CountedAspect(annotatedRegistry));
+        AspectJProxyFactory controllerProxy = new AspectJProxyFactory(new AnnotatedController(serviceProxy.getProxy()));
+        controllerProxy.setProxyTargetClass(true);
+        controllerProxy.addAspect(new TimedAspect(annotatedRegistry));
+        annotated = controllerProxy.getProxy();
+
+        PrometheusMeterRegistry directRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        direct = new DirectController(new DirectService(directRegistry), directRegistry);
+
+        none = new Controller(new Service());
+    }
+
+    @Benchmark
+    public long annotations() {
+        return annotated.get(42);
+    }
+
+    @Benchmark
+    public long preRegistered() {
+        return direct.get(42);
+    }
+
+    @Benchmark
+    public long noMeters() {
+        return none.get(42);
+    }
+
+    public static class Service {
+
+        public long fetch(long id) {
+            return id * 31;
+        }
+    }
+
+    public static class AnnotatedService extends Service {
+
+        @Counted
+        @Override
+        public long fetch(long id) {
+            return id * 31;
+        }
+    }
+
+    public static class DirectService extends Service {
+
+        private final CountedMethod fetchCount;
+
+        public DirectService(PrometheusMeterRegistry registry) {
+            this.fetchCount = new CountedMethod(registry, DirectService.class, "fetch");
+        }
+
+        @Override
+        public long fetch(long id) {
+            return fetchCount.record(() -> id * 31);
+        }
+    }
+
+    public static class Controller {
+
+        protected final Service service;
+
+        public Controller(Service service) {
+            this.service = service;
+        }
+
+        public long get(long id) {
+            return service.fetch(id);
+        }
+    }
+
+    public static class AnnotatedController extends Controller {
+
+        public AnnotatedController(Service service) {
+            super(service);
+        }
+
+        @Timed
+        @Override
+        public long get(long id) {
+            return service.fetch(id);
+        }
+    }
+
+    public static class DirectController extends Controller {
+
+        private final TimedMethod getTime;
+
+        public DirectController(Service service, PrometheusMeterRegistry registry) {
+            super(service);
+            this.getTime = new TimedMethod(registry, DirectController.class, "get");
+        }
+
+        @Override
+        public long get(long id) {
+            return getTime.record(() -> service.fetch(id));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ad.lotfiz.assignment.customerhub.benchmark;
+
+import ad.lotfiz.assignment.customerhub.CustomerHubApplication;
+import ad.lotfiz.assignment.customerhub.RandomGenerator;
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.repository.offheap.OffHeapCustomerStore;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mvn -Pbenchmark test-compile exec:exec -Dbenchmark=OffHeapStore
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-XX:MaxDirectMemorySize=1g")
+public class OffHeapStoreBenchmark {
+
+    @Param({"100000"})
+    private int customers;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private OffHeapCustomerStore store;
+    private UUID[] ids;
+    private CustomerEntity[] names;
+    private long entitiesHeap;
+    private long storeHeap;
+    private long storeDirect;
+    private final Pageable paging = PageRequest.of(0, 10);
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CustomerHubApplication.class)
+                .run("--server.port=0",
+                        "--grpc.server.port=-1",
+                        "--spring.docker.compose.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        customerRepository = context.getBean(CustomerRepository.class);
+        for (int from = 0; from < customers; from += 10_000) {
+            customerRepository.saveAll(IntStream.range(from, Math.min(customers, from + 10_000)).mapToObj(OffHeapStoreBenchmark::customer).toList());
+        }
+
+        List<CustomerEntity> entities = customerRepository.findAll();
+        ids = entities.stream().map(CustomerEntity::getId).toArray(UUID[]::new);
+        names = entities.stream().limit(1000).toArray(CustomerEntity[]::new);
+        entities = null;
+
+        long heap = usedHeap();
+        entities = customerRepository.findAll();
+        entitiesHeap = usedHeap() - heap;
+        store = new OffHeapCustomerStore(customers);
+        entities.forEach(store::load);
+        store.loadCompleted();
+        entities = null;
+        storeHeap = Math.max(0, usedHeap() - heap);
+        storeDirect = store.offHeapBytes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.clear();
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<CustomerEntity> jpaFindById(Memory memory) {
+        report(memory);
+        return customerRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<CustomerEntity> offHeapFindById(Memory memory) {
+        report(memory);
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    public Object jpaFindByName(Memory memory) {
+        report(memory);
+        CustomerEntity customer = randomName();
+        return customerRepository.findByFirstNameLikeAndLastNameLike("%" + customer.getFirstName() + "%", "%" + customer.getLastName() + "%", paging);
+    }
+
+    @Benchmark
+    public Object offHeapFindByName(Memory memory) {
+        report(memory);
+        CustomerEntity customer = randomName();
+        return store.findByFirstNameLikeAndLastNameLike("%" + customer.getFirstName() + "%", "%" + customer.getLastName() + "%", paging);
+    }
+
+    private void report(Memory memory) {
+        memory.entitiesHeapKilobytes = entitiesHeap / 1024;
+        memory.storeHeapKilobytes = storeHeap / 1024;
+        memory.storeDirectKilobytes = storeDirect / 1024;
+    }
+
+    // the heap retained by the loaded entities against the heap and direct memory of the store holding them
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memory {
+
+        public long entitiesHeapKilobytes;
+        public long storeHeapKilobytes;
+        public long storeDirectKilobytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            entitiesHeapKilobytes = 0;
+            storeHeapKilobytes = 0;
+            storeDirectKilobytes = 0;
+        }
+    }
+
+    // 5000 first names and a last name per 2 customers, closer to real names than a handful of each
+    private static CustomerEntity customer(int i) {
+        CustomerEntity customer = RandomGenerator.randomCustomerEntity();
+        customer.setFirstName("First" + i % 5000);
+        customer.setLastName("Last" + i / 2);
+        return customer;
+    }
+
+    private UUID randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private CustomerEntity randomName() {
+        return names[ThreadLocalRandom.current().nextInt(names.length)];
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,134 @@
+package ad.lotfiz.assignment.customerhub.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// needs mvn -Pcds package -DskipTests first, then mvn -Pbenchmark test-compile exec:exec -Dbenchmark=Startup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"jar", "cds"})
+    private String variant;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private List<String> command;
+    private Process process;
+
+    @Setup
+    public void setUp() throws IOException {
+        command = new ArrayList<>(List.of("java"));
+        if ("cds".equals(variant)) {
+            command.add("-XX:SharedArchiveFile=" + Paths.get("target", "cds", "application.jsa"));
+            command.add("-Dspring.aot.enabled=true");
+            command.addAll(List.of("-jar", jar(Paths.get("target", "cds"), "-cds.jar").toString()));
+        } else {
+            command.addAll(List.of("-jar", jar(Paths.get("target"), ".jar").toString()));
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest(Memory memory) throws Exception {
+        int port = freePort();
+        List<String> launch = new ArrayList<>(command);
+        launch.addAll(List.of("--server.port=" + port, "--grpc.server.port=" + freePort()));
+        process = new ProcessBuilder(launch)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customers?page=0&size=1")).build();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with " + process.exitValue() + ": " + launch);
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                memory.rssMegabytes = rss(process.pid()) / 1024;
+                return status;
+            } catch (ConnectException e) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("The application did not answer within " + TIMEOUT);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memory {
+
+        public long rssMegabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rssMegabytes = 0;
+        }
+    }
+
+    private static Path jar(Path directory, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("customer-hub-"))
+                    .filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No customer-hub jar in " + directory + ", run mvn -Pcds package first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // kilobytes, Linux only
+    private static long rss(long pid) throws IOException {
+        try (Stream<String> lines = Files.lines(Paths.get("/proc", Long.toString(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(0L);
+        }
+    }
+}
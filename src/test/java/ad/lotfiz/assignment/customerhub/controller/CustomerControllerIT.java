@@ -3,6 +3,7 @@ package ad.lotfiz.assignment.customerhub.controller;
 import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
 import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import nl.customerhub.api.v1.model.CustomerListResponse;
 import nl.customerhub.api.v1.model.CustomerResponse;
 import nl.customerhub.api.v1.model.CustomerUpdateRequest;
@@ -49,6 +50,8 @@ public class CustomerControllerIT {
     protected ObjectMapper jsonObjectMapper;
     @Autowired
     private CustomerRepository customerRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     public void cleanUpDatabase() {
@@ -202,6 +205,22 @@ public class CustomerControllerIT {
                 Math.abs(Duration.between(body.getUpdated(), currentTime).getSeconds()) <= acceptableTimeDifference.getSeconds());
     }
 
+    @Test
+    void testGetCustomer_times_cache_hits_as_getCustomer() {
+        // Given
+        CustomerEntity entity = customerRepository.save(randomCustomerEntity());
+        String url = String.format(ONE_CUSTOMER_PATH, entity.getId().toString());
+        long before = meterRegistry.get("method.timed").tag("method", "getCustomer").tag("exception", "none").timer().count();
+
+        // When the first call is a miss and the second a hit of the response cache
+        restTemplate.getForEntity(url, CustomerResponse.class);
+        ResponseEntity<CustomerResponse> hit = restTemplate.getForEntity(url, CustomerResponse.class);
+
+        // Then
+        assertThat(hit.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertEquals(before + 2, meterRegistry.get("method.timed").tag("method", "getCustomer").tag("exception", "none").timer().count());
+    }
+
     private static Comparator<OffsetDateTime> getCustomComparator() {
         return Comparator.comparing((OffsetDateTime dt) -> dt.atZoneSameInstant(ZoneId.of("UTC")).toOffsetDateTime());
     }
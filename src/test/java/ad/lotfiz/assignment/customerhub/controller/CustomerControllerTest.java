@@ -1,34 +1,62 @@
 package ad.lotfiz.assignment.customerhub.controller;
 
 import ad.lotfiz.assignment.customerhub.RandomGenerator;
+import ad.lotfiz.assignment.customerhub.config.BinaryContentConfig;
+import ad.lotfiz.assignment.customerhub.controller.limit.AdaptiveConcurrencyLimiter;
+import ad.lotfiz.assignment.customerhub.controller.limit.RequestPriority;
 import ad.lotfiz.assignment.customerhub.exception.CustomerNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.ExportNotFoundException;
+import ad.lotfiz.assignment.customerhub.exception.ExportNotReadyException;
 import ad.lotfiz.assignment.customerhub.exception.FieldNotFoundException;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchCriteria;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchOrder;
 import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache.CachedResponse;
+import ad.lotfiz.assignment.customerhub.service.export.CustomerExportService;
+import ad.lotfiz.assignment.customerhub.service.idempotency.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nl.customerhub.api.v1.model.CustomerListResponse;
 import nl.customerhub.api.v1.model.CustomerRequest;
 import nl.customerhub.api.v1.model.CustomerResponse;
 import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import nl.customerhub.api.v1.model.CustomerUpsertResult;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
 import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerUpdateRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -36,6 +64,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CustomerController.class)
+@Import({BinaryContentConfig.class, AdaptiveConcurrencyLimiter.class, SimpleMeterRegistry.class})
 public class CustomerControllerTest {
 
     @Autowired
@@ -47,6 +76,18 @@ public class CustomerControllerTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private CustomerResponseCache customerResponseCache;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private CustomerExportService customerExportService;
+
+    @SpyBean
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
     @Test
     void testCreateNewCustomer() throws Exception {
         // Given
@@ -71,6 +112,87 @@ public class CustomerControllerTest {
         verify(customerService, times(1)).createNewCustomer(any(CustomerRequest.class));
     }
 
+    @Test
+    void testCreateNewCustomer_idempotency_key_replayed() throws Exception {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        CustomerResponse storedResponse = RandomGenerator.mapRequestToResponse(request);
+        when(idempotencyService.reserve(eq("key-1"), any(CustomerRequest.class), eq(CustomerResponse.class))).thenReturn(Optional.of(storedResponse));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.post("/customers")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "http://localhost/customers/" + storedResponse.getId()))
+                .andExpect(jsonPath("$.id").value(storedResponse.getId()));
+
+        // Then
+        verify(customerService, never()).createNewCustomer(any(CustomerRequest.class));
+        verify(idempotencyService, never()).remember(any(), any(), any());
+    }
+
+    @Test
+    void testCreateNewCustomer_idempotency_key_remembered() throws Exception {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        CustomerResponse expectedResponse = RandomGenerator.mapRequestToResponse(request);
+        when(customerService.createNewCustomer(any(CustomerRequest.class))).thenReturn(expectedResponse);
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.post("/customers")
+                        .header("Idempotency-Key", "key-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Then
+        verify(idempotencyService, times(1)).remember(eq("key-2"), eq(request), eq(expectedResponse));
+    }
+
+    @Test
+    void testCreateNewCustomer_idempotency_key_released_when_create_fails() throws Exception {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        when(customerService.createNewCustomer(any(CustomerRequest.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.post("/customers")
+                        .header("Idempotency-Key", "key-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Then
+        verify(idempotencyService, times(1)).release("key-3");
+        verify(idempotencyService, never()).remember(any(), any(), any());
+    }
+
+    @Test
+    void testCreateNewCustomer_smile() throws Exception {
+        // Given
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+        CustomerRequest request = randomCustomerRequest();
+        CustomerResponse expectedResponse = RandomGenerator.mapRequestToResponse(request);
+        when(customerService.createNewCustomer(any(CustomerRequest.class))).thenReturn(expectedResponse);
+
+        // When
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.post("/customers")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(request)))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        CustomerResponse response = smileMapper.readValue(body, CustomerResponse.class);
+        assertEquals(expectedResponse.getId(), response.getId());
+        assertEquals(request.getFirstName(), response.getFirstName());
+        verify(customerService, times(1)).createNewCustomer(request);
+    }
+
     @Test
     void testCreateNewCustomer_invalid_email_format() throws Exception {
         // Given
@@ -192,7 +314,7 @@ public class CustomerControllerTest {
         // Given
         CustomerResponse expectedResponse = RandomGenerator.randomCustomerResponse();
         String customerId = expectedResponse.getId();
-        when(customerService.fetchCustomer(customerId)).thenReturn(expectedResponse);
+        when(customerService.fetchCustomer(customerId, CustomerField.all())).thenReturn(expectedResponse);
 
         // When
         mockMvc.perform(MockMvcRequestBuilders.get("/customers/{customerId}", customerId))
@@ -205,7 +327,84 @@ public class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.email").value(expectedResponse.getEmail()));
 
         // Then
-        verify(customerService, times(1)).fetchCustomer(customerId);
+        verify(customerService, times(1)).fetchCustomer(customerId, CustomerField.all());
+    }
+
+    @Test
+    void testGetCustomer_cached() throws Exception {
+        // Given
+        String customerId = UUID.randomUUID().toString();
+        byte[] body = "{\"id\":\"cached\"}".getBytes(StandardCharsets.UTF_8);
+        String etag = "\"" + customerId + "-1\"";
+        when(customerResponseCache.get(UUID.fromString(customerId))).thenReturn(Optional.of(new CachedResponse(body, etag)));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/{customerId}", customerId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag))
+                .andExpect(MockMvcResultMatchers.header().longValue(HttpHeaders.CONTENT_LENGTH, body.length))
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.content().bytes(body));
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/{customerId}", customerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        // Then
+        verify(customerService, times(0)).fetchCustomer(any(String.class), any());
+    }
+
+    @Test
+    void testGetCustomer_cbor() throws Exception {
+        // Given
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        CustomerResponse expectedResponse = RandomGenerator.randomCustomerResponse();
+        String customerId = expectedResponse.getId();
+        when(customerService.fetchCustomer(customerId, CustomerField.all())).thenReturn(expectedResponse);
+
+        // When
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.get("/customers/{customerId}", customerId)
+                        .accept("application/cbor"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        CustomerResponse response = cborMapper.readValue(body, CustomerResponse.class);
+        assertEquals(customerId, response.getId());
+        assertEquals(expectedResponse.getEmail(), response.getEmail());
+        assertEquals(expectedResponse.getCreated().toInstant(), response.getCreated().toInstant());
+    }
+
+    @Test
+    void testGetCustomer_sparse_fieldset() throws Exception {
+        // Given
+        CustomerResponse expectedResponse = RandomGenerator.randomCustomerResponse();
+        String customerId = expectedResponse.getId();
+        Set<CustomerField> fields = EnumSet.of(CustomerField.ID, CustomerField.EMAIL);
+        when(customerService.fetchCustomer(customerId, fields)).thenReturn(expectedResponse);
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/{customerId}", customerId)
+                        .param("fields", "id,email"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(customerId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email").value(expectedResponse.getEmail()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.firstName").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").doesNotExist());
+
+        // Then
+        verify(customerService, times(1)).fetchCustomer(customerId, fields);
+    }
+
+    @Test
+    void testGetCustomer_unknown_field() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/{customerId}", UUID.randomUUID())
+                        .param("fields", "id,password"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        // Then
+        verify(customerService, times(0)).fetchCustomer(any(String.class), any());
     }
 
     @Test
@@ -214,7 +413,7 @@ public class CustomerControllerTest {
         String customerId = "1";
 
         // Mocking the behavior of CustomerService to throw a CustomerNotFoundException
-        when(customerService.fetchCustomer(customerId))
+        when(customerService.fetchCustomer(customerId, CustomerField.all()))
                 .thenThrow(new CustomerNotFoundException("Customer not found"));
 
         // When
@@ -223,7 +422,7 @@ public class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Customer not found"));
 
         // Then
-        verify(customerService, times(1)).fetchCustomer(customerId);
+        verify(customerService, times(1)).fetchCustomer(customerId, CustomerField.all());
     }
 
 
@@ -233,7 +432,7 @@ public class CustomerControllerTest {
         String invalidUuid = "not_a_valid_uuid";
 
         // Mocking the behavior of CustomerService to throw an IllegalArgumentException
-        when(customerService.fetchCustomer(invalidUuid))
+        when(customerService.fetchCustomer(invalidUuid, CustomerField.all()))
                 .thenThrow(new IllegalArgumentException("Invalid UUID string: not_a_valid_uuid"));
 
         // When
@@ -253,7 +452,7 @@ public class CustomerControllerTest {
         CustomerResponse customerResponse2 = RandomGenerator.randomCustomerResponse();
         List<CustomerResponse> customerResponseList = Arrays.asList(customerResponse1, customerResponse2);
 
-        when(customerService.list(any(Pageable.class))).thenReturn(new CustomerListResponse(page, size, customerResponseList));
+        when(customerService.list(any(Pageable.class), eq(CustomerField.all()))).thenReturn(new CustomerListResponse(page, size, customerResponseList));
 
         // When
         mockMvc.perform(MockMvcRequestBuilders.get("/customers")
@@ -276,7 +475,7 @@ public class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].email").value(customerResponse2.getEmail()));
 
         // Then
-        verify(customerService, times(1)).list(any(Pageable.class));
+        verify(customerService, times(1)).list(any(Pageable.class), eq(CustomerField.all()));
     }
 
 
@@ -337,7 +536,7 @@ public class CustomerControllerTest {
         CustomerResponse customerResponse1 = RandomGenerator.randomCustomerResponse().firstName(firstName).lastName(lastName);
         CustomerResponse customerResponse2 = RandomGenerator.randomCustomerResponse().firstName(firstName + "1").lastName(lastName + "1");
         List<CustomerResponse> customerResponseList = Arrays.asList(customerResponse1, customerResponse2);
-        when(customerService.findByName(eq(firstName), eq(lastName), any(Pageable.class))).thenReturn(new CustomerListResponse(page, size, customerResponseList));
+        when(customerService.findByName(eq(firstName), eq(lastName), any(Pageable.class), eq(CustomerField.all()))).thenReturn(new CustomerListResponse(page, size, customerResponseList));
 
         // When
         mockMvc.perform(MockMvcRequestBuilders.get("/customers/find")
@@ -364,7 +563,7 @@ public class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].email").value(customerResponse2.getEmail()));
 
         // Then
-        verify(customerService, times(1)).findByName(eq(firstName), eq(lastName), any(Pageable.class));
+        verify(customerService, times(1)).findByName(eq(firstName), eq(lastName), any(Pageable.class), eq(CustomerField.all()));
     }
 
     @Test
@@ -375,7 +574,7 @@ public class CustomerControllerTest {
         int page = 0;
         int size = 10;
 
-        when(customerService.findByName(eq(firstName), eq(lastName), any(Pageable.class)))
+        when(customerService.findByName(eq(firstName), eq(lastName), any(Pageable.class), eq(CustomerField.all())))
                 .thenReturn(new CustomerListResponse(page, size, Collections.emptyList()));
 
         // When
@@ -390,7 +589,236 @@ public class CustomerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content").isEmpty());
 
         // Then
-        verify(customerService, times(1)).findByName(eq(firstName), eq(lastName), any(Pageable.class));
+        verify(customerService, times(1)).findByName(eq(firstName), eq(lastName), any(Pageable.class), eq(CustomerField.all()));
+    }
+
+    @Test
+    void testListCustomers_shed_when_overloaded() throws Exception {
+        // Given
+        doReturn(false).when(concurrencyLimiter).tryAcquire(RequestPriority.READ);
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").exists());
+
+        // Then
+        verify(customerService, never()).list(any(Pageable.class), any());
+    }
+
+    @Test
+    void testUpsertCustomerByName_created() throws Exception {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        CustomerResponse response = RandomGenerator.mapRequestToResponse(request);
+        when(customerService.upsertByName(any(CustomerRequest.class)))
+                .thenReturn(new CustomerUpsertResult(CustomerUpsertResult.ResultEnum.CREATED, response));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.put("/customers/by-name")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "http://localhost/customers/" + response.getId()))
+                .andExpect(jsonPath("$.id").value(response.getId()));
+
+        // Then
+        verify(customerService, times(1)).upsertByName(eq(request));
+    }
+
+    @Test
+    void testUpsertCustomerByName_updated() throws Exception {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        CustomerResponse response = RandomGenerator.mapRequestToResponse(request);
+        when(customerService.upsertByName(any(CustomerRequest.class)))
+                .thenReturn(new CustomerUpsertResult(CustomerUpsertResult.ResultEnum.UPDATED, response));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.put("/customers/by-name")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(response.getId()));
+
+        // Then
+        verify(customerService, times(1)).upsertByName(eq(request));
+    }
+
+    @Test
+    void testUpsertCustomersByName_batch() throws Exception {
+        // Given
+        List<CustomerRequest> requests = List.of(randomCustomerRequest(), randomCustomerRequest());
+        List<CustomerUpsertResult> results = List.of(
+                new CustomerUpsertResult(CustomerUpsertResult.ResultEnum.CREATED, RandomGenerator.mapRequestToResponse(requests.get(0))),
+                new CustomerUpsertResult(CustomerUpsertResult.ResultEnum.UPDATED, RandomGenerator.mapRequestToResponse(requests.get(1))));
+        when(customerService.upsertByName(requests)).thenReturn(results);
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.put("/customers/by-name/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result").value("created"))
+                .andExpect(jsonPath("$[1].result").value("updated"))
+                .andExpect(jsonPath("$[1].customer.id").value(results.get(1).getCustomer().getId()));
+
+        // Then
+        verify(customerService, times(1)).upsertByName(requests);
+    }
+
+    @Test
+    void testUpsertCustomersByName_invalid_email() throws Exception {
+        // Given
+        List<CustomerRequest> requests = List.of(randomCustomerRequest().email("not-an-email"));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.put("/customers/by-name/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        verify(customerService, never()).upsertByName(any(List.class));
+    }
+
+    @Test
+    void testFindCustomersByEmail_caches_matches() throws Exception {
+        // Given
+        CustomerResponse response = RandomGenerator.mapRequestToResponse(randomCustomerRequest());
+        when(customerResponseCache.generation()).thenReturn(7L);
+        when(customerService.findByEmail(response.getEmail())).thenReturn(List.of(response));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/by-email")
+                        .param("email", response.getEmail()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(response.getId()));
+
+        // Then
+        verify(customerResponseCache, times(1)).put(7L, response);
+    }
+
+    @Test
+    void testFindCustomersByEmail_missing_email() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/by-email"))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        verify(customerService, never()).findByEmail(any());
     }
 
+    @Test
+    void testFindCustomersByCriteria() throws Exception {
+        // Given
+        CustomerResponse response = RandomGenerator.mapRequestToResponse(randomCustomerRequest());
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder()
+                .lastName("Smi*")
+                .minAge(20)
+                .maxAge(30)
+                .emailDomain("example.com")
+                .updatedFrom(OffsetDateTime.parse("2024-01-01T00:00:00Z"))
+                .build();
+        when(customerService.search(eq(criteria), eq(CustomerSearchOrder.UPDATED), any(Pageable.class), eq(CustomerField.all())))
+                .thenReturn(new CustomerListResponse(0, 10, List.of(response)));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/search")
+                        .param("lastName", "Smi*")
+                        .param("minAge", "20")
+                        .param("maxAge", "30")
+                        .param("emailDomain", "example.com")
+                        .param("updatedFrom", "2024-01-01T00:00:00Z")
+                        .param("sort", "updated"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(response.getId()));
+
+        // Then
+        verify(customerService, times(1)).search(eq(criteria), eq(CustomerSearchOrder.UPDATED), any(Pageable.class), eq(CustomerField.all()));
+    }
+
+    @Test
+    void testFindCustomersByCriteria_unindexed_sort() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/search").param("sort", "address"))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        verify(customerService, never()).search(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFindCustomersByCriteria_empty_age_range() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/search").param("minAge", "40").param("maxAge", "30"))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        verify(customerService, never()).search(any(), any(), any(), any());
+    }
+
+    @Test
+    void testFindCustomer_fuzzy() throws Exception {
+        // Given
+        CustomerResponse response = RandomGenerator.randomCustomerResponse().firstName("Catherine").lastName("Johnson");
+        when(customerService.findByNameFuzzy(eq("Katherine"), eq("Jonsen"), any(Pageable.class)))
+                .thenReturn(new CustomerListResponse(0, 10, List.of(response)));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/find")
+                        .param("firstName", "Katherine")
+                        .param("lastName", "Jonsen")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(response.getId()));
+
+        // Then
+        verify(customerService, times(1)).findByNameFuzzy(eq("Katherine"), eq("Jonsen"), any(Pageable.class));
+        verify(customerService, never()).findByName(any(), any(), any(Pageable.class), any());
+    }
+
+    @Test
+    void testFindCustomer_unknown_mode() throws Exception {
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/find")
+                        .param("lastName", "Jonsen")
+                        .param("mode", "soundex"))
+                .andExpect(status().isBadRequest());
+
+        // Then
+        verify(customerService, never()).findByNameFuzzy(any(), any(), any());
+    }
+
+
+    @Test
+    void testExportCustomersDownload_not_ready() throws Exception {
+        // Given
+        String exportId = UUID.randomUUID().toString();
+        when(customerExportService.findCompleted(exportId)).thenThrow(new ExportNotReadyException("Export " + exportId + " is running"));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/exports/{exportId}/file", exportId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Export " + exportId + " is running"));
+
+        // Then
+        verify(concurrencyLimiter, never()).tryAcquire(any(RequestPriority.class));
+    }
+
+    @Test
+    void testGetCustomerExport_not_found() throws Exception {
+        // Given
+        String exportId = UUID.randomUUID().toString();
+        when(customerExportService.find(exportId)).thenThrow(new ExportNotFoundException("Export " + exportId + " not found"));
+
+        // When
+        mockMvc.perform(MockMvcRequestBuilders.get("/customers/exports/{exportId}", exportId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Export " + exportId + " not found"));
+
+        // Then
+        verify(customerExportService, times(1)).find(exportId);
+    }
 }
@@ -0,0 +1,105 @@
+package ad.lotfiz.assignment.customerhub.controller;
+
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"customer-hub.server-timing.enabled=true", "customer-hub.cache.page.enabled=true"})
+public class ServerTimingIT {
+
+    private static final Pattern SERVER_TIMING = Pattern.compile(
+            "db;dur=([\\d.]+);desc=\"(\\d+) calls?\", mapping;dur=([\\d.]+), json;dur=([\\d.]+), total;dur=([\\d.]+)");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void cleanUpDatabase() {
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testGetCustomer_breaks_the_time_down_in_the_header() {
+        // Given
+        UUID id = customerRepository.save(randomCustomerEntity()).getId();
+        long before = count("json", "/customers/{customerId}");
+
+        // When
+        ResponseEntity<CustomerResponse> response = restTemplate.getForEntity("/customers/" + id, CustomerResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Matcher timing = serverTiming(response);
+        assertThat(timing.group(2)).isEqualTo("1");
+        assertThat(Double.parseDouble(timing.group(1))).isPositive();
+        assertThat(Double.parseDouble(timing.group(3))).isPositive();
+        assertThat(Double.parseDouble(timing.group(4))).isPositive();
+        assertThat(Double.parseDouble(timing.group(5))).isGreaterThanOrEqualTo(Double.parseDouble(timing.group(1)));
+        assertThat(count("json", "/customers/{customerId}")).isEqualTo(before + 1);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getId()).isEqualTo(id.toString());
+    }
+
+    @Test
+    void testErrors_are_timed_as_well() {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/customers/" + UUID.randomUUID(), String.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(serverTiming(response).group(2)).isEqualTo("1");
+    }
+
+    @Test
+    void testListCustomers_is_not_buffered_but_timed() {
+        // Given
+        customerRepository.save(randomCustomerEntity());
+        long before = count("total", "/customers");
+
+        // When
+        ResponseEntity<CustomerListResponse> response = restTemplate.getForEntity("/customers?page=0&size=10", CustomerListResponse.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getContent()).hasSize(1);
+        serverTiming(response);
+        assertThat(count("total", "/customers")).isEqualTo(before + 1);
+    }
+
+    private static Matcher serverTiming(ResponseEntity<?> response) {
+        String header = response.getHeaders().getFirst(ServerTimingFilter.SERVER_TIMING_HEADER);
+        assertThat(header).isNotNull();
+        Matcher matcher = SERVER_TIMING.matcher(header);
+        assertThat(matcher.matches()).as(header).isTrue();
+        return matcher;
+    }
+
+    private long count(String segment, String uri) {
+        return meterRegistry.find("customerhub.server.timing").tag("segment", segment).tag("uri", uri).timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+}
@@ -0,0 +1,87 @@
+package ad.lotfiz.assignment.customerhub.controller.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofMillis(100).toNanos();
+
+    @Test
+    void testRejectsAboveLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.5);
+        IntStream.range(0, 10).forEach(i -> assertTrue(limiter.tryAcquire(RequestPriority.READ)));
+
+        // When
+        boolean admitted = limiter.tryAcquire(RequestPriority.READ);
+
+        // Then
+        assertFalse(admitted);
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void testExportsAreShedBeforeReads() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100, 1.5);
+        IntStream.range(0, 5).forEach(i -> assertTrue(limiter.tryAcquire(RequestPriority.READ)));
+
+        // When
+        boolean exportAdmitted = limiter.tryAcquire(RequestPriority.EXPORT);
+        boolean readAdmitted = limiter.tryAcquire(RequestPriority.READ);
+
+        // Then
+        assertFalse(exportAdmitted);
+        assertTrue(readAdmitted);
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 1.5);
+        runAtLimit(limiter, FAST, 200);
+        int limitWhileFast = limiter.getLimit();
+
+        // When
+        runAtLimit(limiter, SLOW, 50);
+
+        // Then
+        assertTrue(limitWhileFast >= 20, "limit grows while latency is stable: " + limitWhileFast);
+        assertTrue(limiter.getLimit() < limitWhileFast / 2, "limit shrinks when latency rises: " + limiter.getLimit());
+    }
+
+    @Test
+    void testMetrics() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 100, 1.5);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        // When
+        limiter.tryAcquire(RequestPriority.WRITE);
+        limiter.tryAcquire(RequestPriority.WRITE);
+
+        // Then
+        assertEquals(1, registry.get("customerhub.limiter.limit").gauge().value());
+        assertEquals(1, registry.get("customerhub.limiter.inflight").gauge().value());
+        assertEquals(1, registry.get("customerhub.limiter.rejected").tag("priority", "write").functionCounter().count());
+    }
+
+    private static void runAtLimit(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int requests) {
+        for (int i = 0; i < requests; i++) {
+            while (limiter.tryAcquire(RequestPriority.READ)) {
+                // fill up to the current limit
+            }
+            limiter.release(latencyNanos);
+        }
+    }
+}
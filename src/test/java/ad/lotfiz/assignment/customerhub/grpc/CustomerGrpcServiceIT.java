@@ -0,0 +1,201 @@
+package ad.lotfiz.assignment.customerhub.grpc;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import nl.customerhub.grpc.v1.CreateCustomerRequest;
+import nl.customerhub.grpc.v1.Customer;
+import nl.customerhub.grpc.v1.CustomerHubGrpc;
+import nl.customerhub.grpc.v1.CustomerPage;
+import nl.customerhub.grpc.v1.DeleteCustomerRequest;
+import nl.customerhub.grpc.v1.ExportCustomersRequest;
+import nl.customerhub.grpc.v1.FindCustomersRequest;
+import nl.customerhub.grpc.v1.GetCustomerRequest;
+import nl.customerhub.grpc.v1.ListCustomersRequest;
+import nl.customerhub.grpc.v1.UpdateCustomerRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "grpc.server.in-process-name=customer-hub-test")
+public class CustomerGrpcServiceIT {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${grpc.server.in-process-name}")
+    private String inProcessName;
+
+    private ManagedChannel channel;
+    private CustomerHubGrpc.CustomerHubBlockingStub stub;
+
+    @BeforeEach
+    public void setUp() {
+        customerRepository.deleteAll();
+        channel = InProcessChannelBuilder.forName(inProcessName).directExecutor().build();
+        stub = CustomerHubGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.shutdownNow();
+    }
+
+    @Test
+    void testCreateAndGetCustomer() {
+        // Given
+        CreateCustomerRequest request = CreateCustomerRequest.newBuilder()
+                .setFirstName("John").setLastName("Doe").setAge(42).setEmail("john@example.com").build();
+
+        // When
+        Customer created = stub.createCustomer(request);
+        Customer fetched = stub.getCustomer(GetCustomerRequest.newBuilder().setId(created.getId()).build());
+
+        // Then
+        assertEquals("John", fetched.getFirstName());
+        assertEquals("Doe", fetched.getLastName());
+        assertEquals(42, fetched.getAge());
+        assertEquals("john@example.com", fetched.getEmail());
+        assertFalse(fetched.hasAddress());
+        assertTrue(fetched.hasCreated());
+    }
+
+    @Test
+    void testCreateCustomer_invalid_request() {
+        // Given
+        CreateCustomerRequest request = CreateCustomerRequest.newBuilder().setFirstName("John").setLastName("Doe").setAge(3000).setEmail("john@example.com").build();
+
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> stub.createCustomer(request));
+
+        // Then
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+    }
+
+    @Test
+    void testCreateCustomer_duplicate() {
+        // Given
+        CustomerEntity existing = customerRepository.save(randomCustomerEntity());
+        CreateCustomerRequest request = CreateCustomerRequest.newBuilder()
+                .setFirstName(existing.getFirstName()).setLastName(existing.getLastName()).setEmail("john@example.com").build();
+
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> stub.createCustomer(request));
+
+        // Then
+        assertEquals(Status.Code.ALREADY_EXISTS, exception.getStatus().getCode());
+    }
+
+    @Test
+    void testGetCustomer_sparse_fieldset() {
+        // Given
+        CustomerEntity entity = customerRepository.save(randomCustomerEntity());
+
+        // When
+        Customer customer = stub.getCustomer(GetCustomerRequest.newBuilder().setId(entity.getId().toString()).addFields("id").addFields("email").build());
+
+        // Then
+        assertEquals(entity.getId().toString(), customer.getId());
+        assertEquals(entity.getEmail(), customer.getEmail());
+        assertEquals("", customer.getFirstName());
+        assertFalse(customer.hasCreated());
+    }
+
+    @Test
+    void testGetCustomer_not_found() {
+        // When
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> stub.getCustomer(GetCustomerRequest.newBuilder().setId(UUID.randomUUID().toString()).build()));
+
+        // Then
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+
+    @Test
+    void testUpdateAndDeleteCustomer() {
+        // Given
+        CustomerEntity entity = customerRepository.save(randomCustomerEntity());
+        String id = entity.getId().toString();
+
+        // When
+        Customer updated = stub.updateCustomer(UpdateCustomerRequest.newBuilder().setId(id).setAddress("Main street 1").setEmail("new@example.com").build());
+        stub.deleteCustomer(DeleteCustomerRequest.newBuilder().setId(id).build());
+
+        // Then
+        assertEquals("Main street 1", updated.getAddress());
+        assertEquals("new@example.com", updated.getEmail());
+        assertFalse(customerRepository.existsById(entity.getId()));
+    }
+
+    @Test
+    void testListAndFindCustomers() {
+        // Given
+        customerRepository.saveAll(Arrays.asList(
+                randomCustomerEntity("John", "Doe"),
+                randomCustomerEntity("Jane", "Doe"),
+                randomCustomerEntity("Alice", "Smith")));
+
+        // When
+        CustomerPage all = stub.listCustomers(ListCustomersRequest.newBuilder().setPage(0).setSize(2).build());
+        CustomerPage does = stub.findCustomers(FindCustomersRequest.newBuilder().setLastName("Doe").build());
+
+        // Then
+        assertEquals(2, all.getSize());
+        assertEquals(2, all.getContentCount());
+        assertEquals(10, does.getSize());
+        assertEquals(2, does.getContentCount());
+    }
+
+    @Test
+    void testExportCustomers() {
+        // Given
+        List<CustomerEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            entities.add(randomCustomerEntity());
+        }
+        customerRepository.saveAll(entities);
+
+        // When
+        List<Customer> exported = new ArrayList<>();
+        stub.exportCustomers(ExportCustomersRequest.newBuilder().setBatchSize(3).build()).forEachRemaining(exported::add);
+
+        // Then
+        assertEquals(7, exported.size());
+        assertEquals(7, exported.stream().map(Customer::getId).distinct().count());
+    }
+
+    @Test
+    void testExportCustomers_with_a_sparse_fieldset() {
+        // Given
+        List<CustomerEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entities.add(randomCustomerEntity());
+        }
+        customerRepository.saveAll(entities);
+
+        // When
+        List<Customer> exported = new ArrayList<>();
+        stub.exportCustomers(ExportCustomersRequest.newBuilder().setBatchSize(2).addFields("email").build()).forEachRemaining(exported::add);
+
+        // Then
+        assertEquals(5, exported.size());
+        assertTrue(exported.stream().allMatch(customer -> customer.getId().isEmpty() && !customer.getEmail().isEmpty()));
+    }
+}
@@ -0,0 +1,87 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// asks H2 for the plan (EXPLAIN) of the SQL hibernate sent
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ad.lotfiz.assignment.customerhub.repository.RecordingStatementInspector")
+public class CustomerIndexIT {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void clearStatements() {
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void testLastNamePrefix_uses_last_name_index() {
+        // When
+        customerRepository.findByLastNameStartingWithOrderByLastNameAscFirstNameAsc("Smi", PageRequest.of(0, 10));
+
+        // Then
+        assertPlanUses("IDX_CUSTOMERS_LAST_NAME", "Smi%", 11);
+    }
+
+    @Test
+    void testEmail_uses_normalized_email_index() {
+        // When
+        customerRepository.findByEmailNormalized("john@example.com");
+
+        // Then
+        assertPlanUses("IDX_CUSTOMERS_EMAIL_NORMALIZED", "john@example.com");
+    }
+
+    @Test
+    void testPhoneticNames_use_phonetic_name_index() {
+        // When
+        customerRepository.findByLastNamePhoneticInAndFirstNamePhoneticIn(List.of("JNSN"), List.of("K0RN"), PageRequest.of(0, 10));
+
+        // Then
+        assertPlanUses("IDX_CUSTOMERS_NAME_PHONETIC", "JNSN", "K0RN", 10);
+    }
+
+    @Test
+    void testUpdatedAfter_uses_updated_index() {
+        // Given
+        OffsetDateTime since = OffsetDateTime.now().minusHours(1);
+
+        // When
+        customerRepository.findByUpdatedAfterOrderByUpdatedAsc(since, PageRequest.of(0, 10));
+
+        // Then
+        assertPlanUses("IDX_CUSTOMERS_UPDATED", since, 11);
+    }
+
+    @Test
+    void testMigrations_applied() {
+        // When
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"success\" and \"version\" is not null order by \"installed_rank\"", String.class);
+
+        // Then
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8", "9"), versions);
+    }
+
+    private void assertPlanUses(String index, Object... parameters) {
+        List<String> statements = RecordingStatementInspector.statements();
+        String sql = statements.get(statements.size() - 1);
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parameters));
+        assertTrue(plan.toUpperCase().contains(index), "expected " + index + " in the plan of " + sql + ":\n" + plan);
+    }
+}
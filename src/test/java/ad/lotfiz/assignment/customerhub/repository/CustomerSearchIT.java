@@ -0,0 +1,146 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchCriteria;
+import ad.lotfiz.assignment.customerhub.model.CustomerSearchOrder;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ad.lotfiz.assignment.customerhub.repository.RecordingStatementInspector")
+public class CustomerSearchIT {
+
+    private static final int CUSTOMERS = 50_000;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void seed() {
+        // 500 last names of 100 customers each, 50 email domains, one customer updated per minute
+        jdbcTemplate.update("""
+                insert into customers (id, first_name, last_name, age, address, email, created, updated)
+                select random_uuid(), 'First' || x, 'Last' || mod(x, 500), mod(x, 80) + 18, 'Street ' || x,
+                       'Customer' || x || '@Domain' || mod(x, 50) || '.com',
+                       timestamp with time zone '2024-01-01 00:00:00+00' + x * interval '1' minute,
+                       timestamp with time zone '2024-01-01 00:00:00+00' + x * interval '1' minute
+                from system_range(1, ?)""", CUSTOMERS);
+        jdbcTemplate.execute("analyze");
+        RecordingStatementInspector.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("delete from customers");
+    }
+
+    @Test
+    void testLastNamePrefix_is_a_range_on_the_last_name_index() {
+        // Given
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder().lastName("Last12*").build();
+
+        // When
+        List<Tuple> rows = search(criteria, CustomerSearchOrder.LAST_NAME, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(10, rows.size());
+        rows.forEach(row -> assertTrue(row.get("lastName", String.class).startsWith("Last12")));
+        String sql = lastStatement();
+        assertTrue(sql.contains("like ? escape"), sql);
+        String plan = assertPlanUses(sql, "IDX_CUSTOMERS_LAST_NAME", "Last12%", 10);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void testExactNames_and_age_are_equalities() {
+        // Given
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder()
+                .lastName("Last7").firstName("First507").minAge(45).maxAge(45).build();
+
+        // When
+        List<Tuple> rows = search(criteria, CustomerSearchOrder.LAST_NAME, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(1, rows.size());
+        String sql = lastStatement();
+        assertFalse(sql.contains(" like "), sql);
+        assertTrue(sql.contains("age=?"), sql);
+        assertPlanUses(sql, "IDX_CUSTOMERS_LAST_NAME", "Last7", "First507", 45, 10);
+    }
+
+    @Test
+    void testEmailDomain_uses_the_email_domain_index() {
+        // Given
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder().emailDomain("@DOMAIN3.com").minAge(30).build();
+
+        // When
+        List<Tuple> rows = search(criteria, CustomerSearchOrder.LAST_NAME, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(10, rows.size());
+        rows.forEach(row -> assertTrue(row.get("email", String.class).endsWith("@Domain3.com")));
+        assertPlanUses(lastStatement(), "IDX_CUSTOMERS_EMAIL_DOMAIN", 30, "domain3.com", 10);
+    }
+
+    @Test
+    void testUpdatedWindow_is_read_in_updated_index_order() {
+        // Given
+        OffsetDateTime from = OffsetDateTime.parse("2024-01-10T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2024-01-10T01:00:00Z");
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder().updatedFrom(from).updatedTo(to).build();
+
+        // When
+        List<Tuple> rows = search(criteria, CustomerSearchOrder.UPDATED, PageRequest.of(0, 100));
+
+        // Then
+        assertEquals(60, rows.size());
+        assertTrue(rows.get(0).get("updated", OffsetDateTime.class).isEqual(from));
+        String plan = assertPlanUses(lastStatement(), "IDX_CUSTOMERS_UPDATED", from, to, 100);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void testLikeWildcards_in_a_prefix_are_escaped() {
+        // Given
+        CustomerSearchCriteria criteria = CustomerSearchCriteria.builder().lastName("Last_%*").build();
+
+        // When
+        List<Tuple> rows = search(criteria, CustomerSearchOrder.LAST_NAME, PageRequest.of(0, 10));
+
+        // Then
+        assertTrue(rows.isEmpty());
+    }
+
+    private List<Tuple> search(CustomerSearchCriteria criteria, CustomerSearchOrder order, Pageable paging) {
+        Pageable sortedPaging = PageRequest.of(paging.getPageNumber(), paging.getPageSize(), order.getSort());
+        return customerRepository.findProjected(CustomerSpecifications.matching(criteria), CustomerField.all(), sortedPaging);
+    }
+
+    private static String lastStatement() {
+        List<String> statements = RecordingStatementInspector.statements();
+        return statements.get(statements.size() - 1);
+    }
+
+    private String assertPlanUses(String sql, String index, Object... parameters) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parameters));
+        assertTrue(plan.toUpperCase().contains(index), "expected " + index + " in the plan of " + sql + ":\n" + plan);
+        return plan;
+    }
+}
@@ -0,0 +1,114 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.service.deadline.Deadline;
+import ad.lotfiz.assignment.customerhub.service.deadline.DeadlineContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class DeadlineAwareDataSourceIT {
+
+    // H2 walks a huge generated range and checks for cancellation while doing so
+    private static final String SLOW_QUERY = "select sum(x) from system_range(1, 100000000000)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void cleanUpDatabase() {
+        customerRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void clearDeadline() {
+        DeadlineContext.clear();
+    }
+
+    @Test
+    void testSlowQuery_cancelled_at_deadline() {
+        // Given
+        DeadlineContext.set(Deadline.after("test", Duration.ofMillis(900)));
+        long start = System.nanoTime();
+
+        // When
+        assertThrows(QueryTimeoutException.class, () -> jdbcTemplate.queryForObject(SLOW_QUERY, Long.class));
+
+        // Then
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "query is cancelled after " + elapsed);
+    }
+
+    @Test
+    void testExpiredDeadline_fails_before_the_query() {
+        // Given
+        DeadlineContext.set(Deadline.after("test", Duration.ZERO));
+
+        // When / Then
+        assertThrows(QueryTimeoutException.class,
+                () -> customerRepository.findByFirstNameLikeAndLastNameLike("%", "%", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void testQuery_within_deadline() {
+        // Given
+        customerRepository.save(randomCustomerEntity("John", "Smith"));
+        DeadlineContext.set(Deadline.after("test", Duration.ofSeconds(5)));
+
+        // When
+        long found = customerRepository.findByFirstNameLikeAndLastNameLike("%John%", "%Smith%", PageRequest.of(0, 10)).getTotalElements();
+
+        // Then
+        assertEquals(1, found);
+    }
+
+    @Test
+    void testRequestTimeoutHeader_expiry_is_counted_per_endpoint() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Request-Timeout", "0");
+        double expiredBefore = expired("findCustomer");
+
+        // When
+        ResponseEntity<String> response = restTemplate.exchange("/customers/find?firstName=John", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(expiredBefore + 1, expired("findCustomer"));
+    }
+
+    private double expired(String endpoint) {
+        var counter = meterRegistry.find("customerhub.deadline.expired").tag("endpoint", endpoint).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
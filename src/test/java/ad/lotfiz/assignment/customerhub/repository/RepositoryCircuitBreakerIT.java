@@ -0,0 +1,108 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "resilience4j.circuitbreaker.instances.persistence.minimum-number-of-calls=2",
+        "resilience4j.circuitbreaker.instances.persistence.sliding-window-size=2",
+        "resilience4j.circuitbreaker.instances.persistence.wait-duration-in-open-state=5s",
+        "resilience4j.circuitbreaker.instances.persistence.register-health-indicator=true",
+        "resilience4j.circuitbreaker.instances.persistence.allow-health-indicator-to-fail=false",
+        "resilience4j.circuitbreaker.instances.persistence.record-exceptions=org.springframework.dao.DataAccessResourceFailureException",
+        "management.health.circuitbreakers.enabled=true",
+        "management.endpoint.health.show-details=always"})
+public class RepositoryCircuitBreakerIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setUp() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(RepositoryCircuitBreakerAspect.CIRCUIT_BREAKER);
+        customerRepository.deleteAll();
+    }
+
+    @AfterEach
+    public void closeCircuit() {
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void testOpenCircuit_fails_fast_with_503() {
+        // Given
+        CustomerEntity entity = customerRepository.save(randomCustomerEntity());
+        circuitBreaker.transitionToOpenState();
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/customers/" + entity.getId(), String.class);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfNotPermittedCalls());
+    }
+
+    @Test
+    void testDuplicates_do_not_open_the_circuit() {
+        // Given
+        var request = randomCustomerRequest();
+        customerService.createNewCustomer(request);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThrows(DataIntegrityViolationException.class, () -> customerService.createNewCustomer(request));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void testState_in_health() {
+        // Given
+        circuitBreaker.transitionToOpenState();
+
+        // When
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity("/actuator/health", JsonNode.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode persistence = response.getBody().at("/components/circuitBreakers/details/persistence");
+        assertEquals("CIRCUIT_OPEN", persistence.get("status").asText());
+        assertEquals("OPEN", persistence.at("/details/state").asText());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, restTemplate.getForEntity("/customers/" + UUID.randomUUID(), String.class).getStatusCode());
+    }
+}
@@ -0,0 +1,98 @@
+package ad.lotfiz.assignment.customerhub.repository;
+
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.workload.Workload;
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "customer-hub.datasource.pools.batch.maximum-pool-size=2",
+        "customer-hub.datasource.pools.batch.connection-timeout=250ms"})
+public class WorkloadRoutingDataSourceIT {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private WorkloadPools workloadPools;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void warmUp() {
+        // the acquire timers exist once the pools started
+        customerService.list(PageRequest.of(0, 1));
+        customerService.upsertByName(List.of(randomCustomerRequest()));
+    }
+
+    @Test
+    void testInteractiveRead_uses_interactive_pool() {
+        // Given
+        long interactive = acquired(Workload.INTERACTIVE);
+        long batch = acquired(Workload.BATCH);
+
+        // When
+        customerService.list(PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(interactive + 1, acquired(Workload.INTERACTIVE));
+        assertEquals(batch, acquired(Workload.BATCH));
+    }
+
+    @Test
+    void testBatchUpsert_uses_batch_pool() {
+        // Given
+        long interactive = acquired(Workload.INTERACTIVE);
+        long batch = acquired(Workload.BATCH);
+
+        // When
+        customerService.upsertByName(List.of(randomCustomerRequest(), randomCustomerRequest()));
+
+        // Then
+        assertEquals(batch + 1, acquired(Workload.BATCH));
+        // nested reads of the batch stay on the batch pool
+        assertEquals(interactive, acquired(Workload.INTERACTIVE));
+    }
+
+    @Test
+    void testExhaustedBatchPool_does_not_block_interactive_reads() throws Exception {
+        // Given every batch connection is taken
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                held.add(workloadPools.pool(Workload.BATCH).getConnection());
+            }
+            assertEquals(1.0, meterRegistry.get("customerhub.datasource.saturation").tag("workload", "batch").gauge().value());
+
+            // When
+            CustomerListResponse response = customerService.list(PageRequest.of(0, 10));
+
+            // Then
+            assertNotNull(response);
+            assertThrows(Exception.class, () -> customerService.upsertByName(List.of(randomCustomerRequest())));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private long acquired(Workload workload) {
+        return meterRegistry.get("hikaricp.connections.acquire").tag("pool", WorkloadPools.poolName(workload)).timer().count();
+    }
+}
@@ -0,0 +1,69 @@
+package ad.lotfiz.assignment.customerhub.repository.migration;
+
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class PhoneticNameKeysMigrationIT {
+
+    @Autowired
+    private PhoneticNameKeysMigration migration;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void cleanUp() {
+        jdbcTemplate.update("delete from customers");
+    }
+
+    @Test
+    void testMigrate_backfills_customers_without_keys() throws Exception {
+        // Given more customers than a batch, inserted the way they were before V6
+        jdbcTemplate.update("""
+                insert into customers (id, first_name, last_name, age, created, updated)
+                select random_uuid(), 'Catherine' || x, 'Johnson', 30, current_timestamp, current_timestamp
+                from system_range(1, 2500)""");
+
+        // When
+        try (Connection connection = dataSource.getConnection()) {
+            migration.migrate(context(connection));
+        }
+
+        // Then
+        Map<String, Object> keys = jdbcTemplate.queryForMap("""
+                select count(*) as customers, count(distinct last_name_phonetic) as last_name_keys, min(last_name_phonetic) as last_name_key
+                from customers where first_name_phonetic is not null""");
+        assertEquals(2500L, keys.get("CUSTOMERS"));
+        assertEquals(1L, keys.get("LAST_NAME_KEYS"));
+        assertEquals("JNSN", keys.get("LAST_NAME_KEY"));
+    }
+
+    private static Context context(Connection connection) {
+        return new Context() {
+            @Override
+            public Configuration getConfiguration() {
+                return null;
+            }
+
+            @Override
+            public Connection getConnection() {
+                return connection;
+            }
+        };
+    }
+}
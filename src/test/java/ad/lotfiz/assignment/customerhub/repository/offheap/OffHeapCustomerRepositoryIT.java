@@ -0,0 +1,94 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.repository.RecordingStatementInspector;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import nl.customerhub.api.v1.model.CustomerListResponse;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ad.lotfiz.assignment.customerhub.repository.RecordingStatementInspector")
+@ActiveProfiles("offheap")
+public class OffHeapCustomerRepositoryIT {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OffHeapCustomerStore store;
+
+    @BeforeEach
+    public void cleanUp() {
+        customerRepository.deleteAll();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void testWrites_go_through_to_the_store() {
+        // Given
+        CustomerResponse created = customerService.createNewCustomer(randomCustomerRequest());
+        CustomerResponse deleted = customerService.createNewCustomer(randomCustomerRequest());
+        UUID id = UUID.fromString(created.getId());
+
+        // When
+        customerService.update(created.getId(), new CustomerUpdateRequest().address("Changed 1"));
+        customerService.delete(deleted.getId());
+
+        // Then
+        assertTrue(store.isLoaded());
+        assertEquals("Changed 1", store.get(id).orElseThrow().getAddress());
+        assertTrue(store.get(UUID.fromString(deleted.getId())).isEmpty());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testReads_are_served_without_sql() {
+        // Given
+        List<CustomerEntity> saved = customerRepository.saveAll(List.of(randomCustomerEntity(), randomCustomerEntity()));
+        CustomerEntity customer = saved.get(0);
+        RecordingStatementInspector.clear();
+
+        // When
+        CustomerResponse fetched = customerService.fetchCustomer(customer.getId().toString());
+        CustomerListResponse page = customerService.list(PageRequest.of(0, 10));
+        CustomerListResponse found = customerService.findByName(customer.getFirstName(), customer.getLastName(), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(customer.getEmail(), fetched.getEmail());
+        assertEquals(2, page.getContent().size());
+        assertEquals(List.of(customer.getId().toString()), found.getContent().stream().map(CustomerResponse::getId).toList());
+        assertTrue(RecordingStatementInspector.statements().isEmpty(), RecordingStatementInspector.statements().toString());
+    }
+
+    @Test
+    void testDeleteAll_empties_the_store() {
+        // Given
+        customerRepository.saveAll(List.of(randomCustomerEntity(), randomCustomerEntity()));
+
+        // When
+        customerRepository.deleteAll();
+
+        // Then
+        assertEquals(0, store.size());
+        assertEquals(0, customerService.list(PageRequest.of(0, 10)).getContent().size());
+    }
+}
@@ -0,0 +1,181 @@
+package ad.lotfiz.assignment.customerhub.repository.offheap;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapCustomerStoreTest {
+
+    private OffHeapCustomerStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new OffHeapCustomerStore(16);
+        store.loadCompleted();
+    }
+
+    @Test
+    void testPutAndGet() {
+        // Given
+        CustomerEntity customer = randomCustomerEntity();
+        customer.setAddress("Straße 1");
+
+        // When
+        store.put(customer);
+
+        // Then
+        CustomerEntity stored = store.get(customer.getId()).orElseThrow();
+        assertEquals(customer.getFirstName(), stored.getFirstName());
+        assertEquals(customer.getLastName(), stored.getLastName());
+        assertEquals(customer.getAge(), stored.getAge());
+        assertEquals("Straße 1", stored.getAddress());
+        assertEquals(customer.getEmail(), stored.getEmail());
+        assertEquals(customer.getCreated().truncatedTo(ChronoUnit.MICROS), stored.getCreated());
+        assertEquals(customer.getUpdated().truncatedTo(ChronoUnit.MICROS), stored.getUpdated());
+    }
+
+    @Test
+    void testPut_replaces_and_keeps_absent_fields_absent() {
+        // Given
+        CustomerEntity customer = randomCustomerEntity();
+        store.put(customer);
+        customer.setAge(null);
+        customer.setAddress(null);
+
+        // When
+        store.put(customer);
+
+        // Then
+        CustomerEntity stored = store.get(customer.getId()).orElseThrow();
+        assertEquals(null, stored.getAge());
+        assertEquals(null, stored.getAddress());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testRandomPutsAndRemoves_same_as_a_map() {
+        // Given
+        Random random = new Random(42);
+        Map<UUID, CustomerEntity> expected = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+
+        // When the index grows and entries are shifted back on removal
+        for (int i = 0; i < 20_000; i++) {
+            if (!ids.isEmpty() && random.nextInt(3) == 0) {
+                UUID removed = ids.remove(random.nextInt(ids.size()));
+                expected.remove(removed);
+                store.remove(removed);
+            } else {
+                CustomerEntity customer = randomCustomerEntity();
+                ids.add(customer.getId());
+                expected.put(customer.getId(), customer);
+                store.put(customer);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), store.size());
+        expected.forEach((id, customer) -> assertEquals(customer.getEmail(), store.get(id).orElseThrow().getEmail()));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(store.get(UUID.randomUUID()).isEmpty());
+        }
+        assertEquals(expected.size(), store.findAll(PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testFindByName_like_patterns() {
+        // Given
+        store.put(customer("Anna", "van Dijk"));
+        store.put(customer("Hanna", "Dijkstra"));
+        store.put(customer("Jan", "de Vries"));
+        store.put(customer("Ann_", "100%"));
+
+        // When
+        Page<CustomerEntity> dijk = store.findByFirstNameLikeAndLastNameLike("%anna%", "%DIJK%", PageRequest.of(0, 10));
+        Page<CustomerEntity> firstPage = store.findByFirstNameLikeAndLastNameLike("%", "%", PageRequest.of(0, 3));
+        Page<CustomerEntity> escaped = store.findByFirstNameLikeAndLastNameLike("Ann\\_", "%\\%", PageRequest.of(0, 10));
+        Page<CustomerEntity> single = store.findByFirstNameLikeAndLastNameLike("_an", "%", PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("Anna", "Hanna"), dijk.map(CustomerEntity::getFirstName).getContent());
+        assertEquals(3, firstPage.getNumberOfElements());
+        assertEquals(4, firstPage.getTotalElements());
+        assertEquals(List.of("Ann_"), escaped.map(CustomerEntity::getFirstName).getContent());
+        assertEquals(List.of("Jan"), single.map(CustomerEntity::getFirstName).getContent());
+    }
+
+    @Test
+    void testRepeatedUpdates_reclaim_replaced_strings_and_names() {
+        // Given
+        List<CustomerEntity> customers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CustomerEntity customer = randomCustomerEntity();
+            customers.add(customer);
+            store.put(customer);
+        }
+        long bytes = store.offHeapBytes();
+
+        // When every update brings a new address, email and last name
+        for (int i = 0; i < 50_000; i++) {
+            CustomerEntity customer = customers.get(i % customers.size());
+            customer.setLastName("Last" + i);
+            customer.setAddress("Street " + i + " " + "x".repeat(100));
+            customer.setEmail("customer" + i + "@example.com");
+            store.put(customer);
+        }
+
+        // Then
+        assertTrue(store.offHeapBytes() <= bytes + 4 * (1 << 20), "direct memory grew to " + store.offHeapBytes());
+        for (CustomerEntity customer : customers) {
+            CustomerEntity stored = store.get(customer.getId()).orElseThrow();
+            assertEquals(customer.getFirstName(), stored.getFirstName());
+            assertEquals(customer.getLastName(), stored.getLastName());
+            assertEquals(customer.getAddress(), stored.getAddress());
+            assertEquals(customer.getEmail(), stored.getEmail());
+        }
+        assertEquals(1, store.findByFirstNameLikeAndLastNameLike("%", "Last49999", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void testLoad_keeps_customers_written_while_loading() {
+        // Given
+        OffHeapCustomerStore loading = new OffHeapCustomerStore(16);
+        CustomerEntity updated = randomCustomerEntity();
+        CustomerEntity deleted = randomCustomerEntity();
+        CustomerEntity older = CustomerEntity.builder().id(updated.getId()).firstName("Old").lastName("Name")
+                .created(updated.getCreated()).updated(updated.getCreated()).build();
+
+        // When
+        loading.put(updated);
+        loading.remove(deleted.getId());
+        loading.load(older);
+        loading.load(deleted);
+        loading.loadCompleted();
+
+        // Then
+        assertEquals(updated.getFirstName(), loading.get(updated.getId()).orElseThrow().getFirstName());
+        assertTrue(loading.get(deleted.getId()).isEmpty());
+        assertTrue(loading.isLoaded());
+    }
+
+    private static CustomerEntity customer(String firstName, String lastName) {
+        CustomerEntity customer = randomCustomerEntity();
+        customer.setFirstName(firstName);
+        customer.setLastName(lastName);
+        return customer;
+    }
+}
@@ -2,11 +2,13 @@ package ad.lotfiz.assignment.customerhub.service;
 
 import ad.lotfiz.assignment.customerhub.exception.CustomerNotFoundException;
 import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
 import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
 import nl.customerhub.api.v1.model.CustomerListResponse;
 import nl.customerhub.api.v1.model.CustomerRequest;
 import nl.customerhub.api.v1.model.CustomerResponse;
 import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import nl.customerhub.api.v1.model.CustomerUpsertResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +19,9 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +32,7 @@ import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerUpd
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.util.AssertionErrors.assertTrue;
 
@@ -223,6 +228,87 @@ public class CustomerServiceIT {
         assertEquals(lastNameToSearch, response.getLastName());
     }
 
+    @Test
+    void testFindCustomersByName_fuzzy_finds_misspelled_names() {
+        // Given
+        customerRepository.saveAll(Arrays.asList(
+                randomCustomerEntity("Kathryn", "Jonson"),
+                randomCustomerEntity("Catherine", "Johnson"),
+                randomCustomerEntity("Peter", "Johnson"),
+                randomCustomerEntity("Alice", "Smith")
+        ));
+
+        // When
+        CustomerListResponse result = customerService.findByNameFuzzy("Katherine", "Jonsen", PageRequest.of(0, 10));
+
+        // Then
+        List<CustomerResponse> customerResponses = result.getContent();
+        assertEquals(2, customerResponses.size());
+        // closest spelling first
+        assertEquals("Catherine", customerResponses.get(0).getFirstName());
+        assertEquals("Kathryn", customerResponses.get(1).getFirstName());
+    }
+
+    @Test
+    void testFindCustomersByName_fuzzy_rejects_pages_past_the_ranked_candidates() {
+        // Given
+        customerRepository.save(randomCustomerEntity("Catherine", "Johnson"));
+
+        // When and Then
+        assertThrows(IllegalArgumentException.class, () -> customerService.findByNameFuzzy("Katherine", "Jonsen", PageRequest.of(100, 10)));
+        assertEquals(1, customerService.findByNameFuzzy("Katherine", "Jonsen", PageRequest.of(0, 1000)).getContent().size());
+    }
+
+    @Test
+    void testFindCustomersByName_fuzzy_keys_maintained_on_create() {
+        // Given
+        CustomerRequest customerRequest = randomCustomerRequest().firstName("Stephen").lastName("Schmidt");
+        customerService.createNewCustomer(customerRequest);
+
+        // When
+        CustomerListResponse result = customerService.findByNameFuzzy(null, "Smit", PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        assertEquals("Schmidt", result.getContent().get(0).getLastName());
+    }
+
+    @Test
+    void testFindCustomersByLastName_sparse_fieldset() {
+        // Given
+        CustomerEntity entity = randomCustomerEntity("John", "Doe");
+        customerRepository.saveAll(Arrays.asList(entity, randomCustomerEntity("Alice", "Smith")));
+
+        // When
+        Pageable paging = PageRequest.of(0, 10);
+        CustomerListResponse result = customerService.findByName(null, "Doe", paging, EnumSet.of(CustomerField.ID, CustomerField.EMAIL));
+
+        // Then
+        assertEquals(1, result.getContent().size());
+        CustomerResponse response = result.getContent().get(0);
+        assertEquals(entity.getId().toString(), response.getId());
+        assertEquals(entity.getEmail(), response.getEmail());
+        assertNull(response.getFirstName());
+        assertNull(response.getCreated());
+    }
+
+    @Test
+    void testFetchCustomer_sparse_fieldset() {
+        // Given
+        CustomerEntity entity = customerRepository.save(randomCustomerEntity());
+
+        // When
+        CustomerResponse response = customerService.fetchCustomer(entity.getId().toString(), EnumSet.of(CustomerField.LAST_NAME, CustomerField.AGE));
+
+        // Then
+        assertEquals(entity.getLastName(), response.getLastName());
+        assertEquals(entity.getAge(), response.getAge());
+        assertNull(response.getId());
+        assertNull(response.getAddress());
+        assertThrows(CustomerNotFoundException.class,
+                () -> customerService.fetchCustomer(UUID.randomUUID().toString(), EnumSet.of(CustomerField.ID)));
+    }
+
     @Test
     void testUpdateCustomer() {
         // Given
@@ -260,4 +346,81 @@ public class CustomerServiceIT {
                 () -> customerService.update(nonExistingCustomerId, updatedRequest));
     }
 
+    @Test
+    void testUpsertByName_creates_customer() {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+
+        // When
+        CustomerUpsertResult result = customerService.upsertByName(request);
+
+        // Then
+        assertEquals(CustomerUpsertResult.ResultEnum.CREATED, result.getResult());
+        CustomerEntity stored = customerRepository.findById(UUID.fromString(result.getCustomer().getId())).orElseThrow();
+        assertEquals(request.getFirstName(), stored.getFirstName());
+        assertEquals(request.getEmail(), stored.getEmail());
+        assertEquals(request.getAge(), stored.getAge());
+    }
+
+    @Test
+    void testUpsertByName_updates_existing_customer() {
+        // Given
+        CustomerEntity existingCustomer = customerRepository.save(randomCustomerEntity());
+        CustomerRequest request = randomCustomerRequest()
+                .firstName(existingCustomer.getFirstName())
+                .lastName(existingCustomer.getLastName());
+
+        // When
+        CustomerUpsertResult result = customerService.upsertByName(request);
+
+        // Then
+        assertEquals(CustomerUpsertResult.ResultEnum.UPDATED, result.getResult());
+        assertEquals(existingCustomer.getId().toString(), result.getCustomer().getId());
+        assertEquals(1, customerRepository.count());
+        CustomerEntity stored = customerRepository.findById(existingCustomer.getId()).orElseThrow();
+        assertEquals(request.getAddress(), stored.getAddress());
+        assertEquals(request.getEmail(), stored.getEmail());
+        assertEquals(request.getAge(), stored.getAge());
+        assertEquals(existingCustomer.getCreated().toInstant().truncatedTo(ChronoUnit.MILLIS),
+                stored.getCreated().toInstant().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void testFindByEmail_ignores_case_and_whitespace() {
+        // Given
+        CustomerEntity customer = randomCustomerEntity();
+        customer.setEmail("John.Doe@Example.com");
+        customer = customerRepository.save(customer);
+        customerRepository.save(randomCustomerEntity());
+
+        // When
+        List<CustomerResponse> responses = customerService.findByEmail(" john.doe@EXAMPLE.com ");
+
+        // Then
+        assertEquals(1, responses.size());
+        assertEquals(customer.getId().toString(), responses.get(0).getId());
+        assertEquals("John.Doe@Example.com", responses.get(0).getEmail());
+    }
+
+    @Test
+    void testUpsertByName_batch() {
+        // Given
+        CustomerEntity existingCustomer = customerRepository.save(randomCustomerEntity());
+        CustomerRequest update = randomCustomerRequest()
+                .firstName(existingCustomer.getFirstName())
+                .lastName(existingCustomer.getLastName());
+        CustomerRequest create = randomCustomerRequest();
+
+        // When
+        List<CustomerUpsertResult> results = customerService.upsertByName(List.of(create, update));
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals(CustomerUpsertResult.ResultEnum.CREATED, results.get(0).getResult());
+        assertEquals(create.getFirstName(), results.get(0).getCustomer().getFirstName());
+        assertEquals(CustomerUpsertResult.ResultEnum.UPDATED, results.get(1).getResult());
+        assertEquals(existingCustomer.getId().toString(), results.get(1).getCustomer().getId());
+        assertEquals(2, customerRepository.count());
+    }
+
 }
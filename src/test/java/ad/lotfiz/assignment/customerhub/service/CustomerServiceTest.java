@@ -6,6 +6,8 @@ import ad.lotfiz.assignment.customerhub.exception.FieldNotFoundException;
 import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
 import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
 import ad.lotfiz.assignment.customerhub.service.mapper.CustomerMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nl.customerhub.api.v1.model.CustomerListResponse;
 import nl.customerhub.api.v1.model.CustomerRequest;
 import nl.customerhub.api.v1.model.CustomerResponse;
@@ -14,7 +16,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -50,6 +54,12 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -61,7 +71,7 @@ public class CustomerServiceTest {
         CustomerResponse customerResponse = RandomGenerator.mapEntityToResponse(mockedEntity);
         when(customerMapper.mapFromCustomerRequest(customerRequest)).thenReturn(mockedEntity);
         when(customerMapper.mapFromCustomerEntity(mockedEntity)).thenReturn(customerResponse);
-        when(customerRepository.save(any(CustomerEntity.class))).thenReturn(mockedEntity);
+        when(customerRepository.saveAndFlush(any(CustomerEntity.class))).thenReturn(mockedEntity);
 
         // When
         CustomerResponse result = customerService.createNewCustomer(customerRequest);
@@ -75,9 +85,9 @@ public class CustomerServiceTest {
         assertEquals(customerRequest.getAddress(), result.getAddress());
         assertEquals(customerRequest.getEmail(), result.getEmail());
 
-        // Verify that the repository's save method was called with the correct argument
+        // Verify that the repository's saveAndFlush method was called with the correct argument
         ArgumentCaptor<CustomerEntity> entityCaptor = ArgumentCaptor.forClass(CustomerEntity.class);
-        verify(customerRepository).save(entityCaptor.capture());
+        verify(customerRepository).saveAndFlush(entityCaptor.capture());
         assertEquals(customerRequest.getFirstName(), entityCaptor.getValue().getFirstName());
         assertEquals(customerRequest.getLastName(), entityCaptor.getValue().getLastName());
     }
@@ -271,7 +281,7 @@ public class CustomerServiceTest {
                 .address(updateRequest.getAddress()).email(updateRequest.getEmail());
 
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(existingCustomer));
-        when(customerRepository.save(any(CustomerEntity.class))).thenReturn(existingCustomer);
+        when(customerRepository.saveAndFlush(any(CustomerEntity.class))).thenReturn(existingCustomer);
         when(customerMapper.mapFromCustomerEntity(any())).thenReturn(expectedResponse);
 
         // When
@@ -281,9 +291,9 @@ public class CustomerServiceTest {
         assertNotNull(result);
         assertEquals(expectedResponse, result);
 
-        // Verify that the repository's save method was called with the correct argument
+        // Verify that the repository's saveAndFlush method was called with the correct argument
         ArgumentCaptor<CustomerEntity> entityCaptor = ArgumentCaptor.forClass(CustomerEntity.class);
-        verify(customerRepository).save(entityCaptor.capture());
+        verify(customerRepository).saveAndFlush(entityCaptor.capture());
 
         // Verify that the fetchOrThrow method was called with the correct argument
         verify(customerRepository, times(1)).findById(customerId);
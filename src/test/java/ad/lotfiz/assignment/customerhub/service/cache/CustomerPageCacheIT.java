@@ -0,0 +1,100 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.customerhub.api.v1.model.CustomerRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "customer-hub.cache.page.enabled=true")
+@AutoConfigureMockMvc
+public class CustomerPageCacheIT {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerPageCache customerPageCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void cleanUp() {
+        customerRepository.deleteAll();
+        // the rows are deleted behind the back of the service, the pages of the previous test are stale
+        customerPageCache.onCustomerChanged(new CustomerChangedEvent(UUID.randomUUID(), CustomerChangedEvent.Change.DELETED));
+    }
+
+    @Test
+    void testRepeatedPages_are_hits_until_a_customer_changes() throws Exception {
+        // Given
+        CustomerRequest anna = randomCustomerRequest().firstName("Anna");
+        customerService.createNewCustomer(anna);
+        double hits = hits();
+
+        // When
+        JsonNode first = page(get("/customers").param("size", "5"));
+        JsonNode second = page(get("/customers").param("size", "5"));
+        JsonNode found = page(get("/customers/find").param("firstName", "Ann"));
+        JsonNode foundAgain = page(get("/customers/find").param("firstName", "Ann"));
+        customerService.createNewCustomer(randomCustomerRequest().firstName("Annabel"));
+        JsonNode afterCreate = page(get("/customers/find").param("firstName", "Ann"));
+
+        // Then
+        assertEquals(first, second);
+        assertEquals(found, foundAgain);
+        assertEquals(2, hits() - hits);
+        assertEquals(1, found.get("content").size());
+        assertEquals(2, afterCreate.get("content").size());
+    }
+
+    @Test
+    void testSparseFieldsets_are_not_cached() throws Exception {
+        // Given
+        customerService.createNewCustomer(randomCustomerRequest());
+        double hits = hits();
+
+        // When
+        page(get("/customers").param("fields", "id"));
+        JsonNode sparse = page(get("/customers").param("fields", "id"));
+
+        // Then
+        assertEquals(0, hits() - hits);
+        assertEquals(1, sparse.get("content").get(0).size());
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "customerPages").tag("result", "hit").functionCounter().count();
+    }
+}
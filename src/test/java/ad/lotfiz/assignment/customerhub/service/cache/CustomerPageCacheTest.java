@@ -0,0 +1,83 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerPageCache.PageKey;
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CustomerPageCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CustomerPageCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new CustomerPageCache(meterRegistry, DataSize.ofKilobytes(1), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testPutAndGet_same_query() {
+        // Given
+        byte[] page = "{\"page\":0}".getBytes();
+        cache.put(cache.key("findCustomer", Arrays.asList("Anna", ""), 0, 10), page);
+
+        // When
+        byte[] cached = cache.get(cache.key("findCustomer", Arrays.asList("Anna", ""), 0, 10)).orElseThrow();
+
+        // Then
+        assertArrayEquals(page, cached);
+        assertTrue(cache.get(cache.key("findCustomer", Arrays.asList("Anna", ""), 1, 10)).isEmpty());
+        assertEquals(0.5, meterRegistry.get("customerhub.cache.pages.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void testChange_makes_every_page_stale() {
+        // Given
+        PageKey key = cache.key("listCustomers", List.of(), 0, 10);
+        cache.put(key, new byte[10]);
+
+        // When
+        cache.onCustomerChanged(new CustomerChangedEvent(UUID.randomUUID(), CustomerChangedEvent.Change.CREATED));
+
+        // Then
+        assertTrue(cache.get(cache.key("listCustomers", List.of(), 0, 10)).isEmpty());
+    }
+
+    @Test
+    void testPut_read_before_a_change_is_not_cached() {
+        // Given
+        PageKey key = cache.key("listCustomers", List.of(), 0, 10);
+
+        // When
+        cache.onCustomerChanged(new CustomerChangedEvent(UUID.randomUUID(), CustomerChangedEvent.Change.UPDATED));
+        cache.put(key, new byte[10]);
+
+        // Then
+        assertTrue(cache.get(key).isEmpty());
+        assertEquals(0.0, meterRegistry.get("customerhub.cache.pages.bytes").gauge().value());
+    }
+
+    @Test
+    void testLargePages_are_not_cached() {
+        // Given
+        PageKey key = cache.key("listCustomers", List.of(), 0, 101);
+
+        // When
+        cache.put(key, new byte[10]);
+
+        // Then
+        assertTrue(cache.get(key).isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.model.CustomerField;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "customer-hub.cache.snapshot.enabled=true",
+        "customer-hub.cache.snapshot.file=target/customer-responses-it.snapshot"})
+public class CustomerResponseCacheSnapshotIT {
+
+    @Autowired
+    private CustomerResponseCacheSnapshot snapshot;
+
+    @Autowired
+    private CustomerResponseCache customerResponseCache;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void cleanUp() throws Exception {
+        customerRepository.deleteAll();
+        Files.deleteIfExists(Path.of("target/customer-responses-it.snapshot"));
+    }
+
+    @Test
+    void testWarmUp_restores_the_customers_not_changed_since_the_snapshot() throws Exception {
+        // Given customers last updated an hour ago, cached and written to the snapshot
+        List<CustomerEntity> customers = customerRepository.saveAll(List.of(randomCustomerEntity(), randomCustomerEntity(), randomCustomerEntity()));
+        jdbcTemplate.update("update customers set updated = dateadd('HOUR', -1, updated)");
+        customers.forEach(customer -> customerResponseCache.put(customerResponseCache.generation(),
+                customerService.fetchCustomer(customer.getId().toString(), CustomerField.all())));
+        UUID unchanged = customers.get(0).getId();
+        UUID updated = customers.get(1).getId();
+        UUID deleted = customers.get(2).getId();
+        byte[] unchangedBody = customerResponseCache.get(unchanged).orElseThrow().body();
+        snapshot.write();
+        // a restarted node with an empty cache, and customers changed while it was down
+        customers.forEach(customer -> customerResponseCache.evict(customer.getId()));
+        customerService.update(updated.toString(), new CustomerUpdateRequest().address("Changed 1"));
+        customerService.delete(deleted.toString());
+
+        // When
+        int restored = snapshot.warmUp();
+
+        // Then
+        assertEquals(1, restored);
+        assertArrayEquals(unchangedBody, customerResponseCache.get(unchanged).orElseThrow().body());
+        assertTrue(customerResponseCache.get(updated).isEmpty());
+        assertTrue(customerResponseCache.get(deleted).isEmpty());
+        assertTrue(meterRegistry.get("customerhub.cache.warmup").tag("result", "loaded").timer().count() >= 1);
+    }
+
+    @Test
+    void testWarmUp_discards_the_snapshot_of_another_build() throws Exception {
+        // Given a snapshot with another fingerprint, which follows the magic and the version
+        CustomerEntity customer = customerRepository.save(randomCustomerEntity());
+        jdbcTemplate.update("update customers set updated = dateadd('HOUR', -1, updated)");
+        customerResponseCache.put(customerResponseCache.generation(), customerService.fetchCustomer(customer.getId().toString(), CustomerField.all()));
+        snapshot.write();
+        customerResponseCache.evict(customer.getId());
+        try (FileChannel channel = FileChannel.open(Path.of("target/customer-responses-it.snapshot"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, 42), 8);
+        }
+
+        // When
+        int restored = snapshot.warmUp();
+
+        // Then
+        assertEquals(0, restored);
+        assertTrue(customerResponseCache.get(customer.getId()).isEmpty());
+        assertTrue(meterRegistry.get("customerhub.cache.warmup").tag("result", "discarded").timer().count() >= 1);
+    }
+
+    @Test
+    void testWarmUp_without_snapshot() {
+        // When
+        int restored = snapshot.warmUp();
+
+        // Then
+        assertEquals(0, restored);
+        assertTrue(meterRegistry.get("customerhub.cache.warmup").tag("result", "missing").timer().count() >= 1);
+    }
+}
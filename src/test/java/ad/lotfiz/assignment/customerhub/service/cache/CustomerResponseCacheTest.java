@@ -0,0 +1,111 @@
+package ad.lotfiz.assignment.customerhub.service.cache;
+
+import ad.lotfiz.assignment.customerhub.service.event.CustomerChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerResponse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CustomerResponseCacheTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CustomerResponseCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new CustomerResponseCache(objectMapper, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testPutAndGet() throws Exception {
+        // Given
+        CustomerResponse response = randomCustomerResponse();
+        UUID id = UUID.fromString(response.getId());
+
+        // When
+        cache.put(cache.generation(), response);
+
+        // Then
+        CustomerResponseCache.CachedResponse cached = cache.get(id).orElseThrow();
+        assertArrayEquals(objectMapper.writeValueAsBytes(response), cached.body());
+        assertTrue(cached.etag().startsWith("\"" + id));
+    }
+
+    @Test
+    void testEtagChangesWithVersion() {
+        // Given
+        CustomerResponse response = randomCustomerResponse();
+        String etag = cache.put(cache.generation(), response).orElseThrow().etag();
+
+        // When
+        String updatedEtag = cache.put(cache.generation(), response.updated(response.getUpdated().plusSeconds(1))).orElseThrow().etag();
+
+        // Then
+        assertNotEquals(etag, updatedEtag);
+    }
+
+    @Test
+    void testEvictedOnUpdateAndDelete() {
+        // Given
+        CustomerResponse updated = randomCustomerResponse();
+        CustomerResponse deleted = randomCustomerResponse();
+        cache.put(cache.generation(), updated);
+        cache.put(cache.generation(), deleted);
+
+        // When
+        cache.onCustomerChanged(new CustomerChangedEvent(UUID.fromString(updated.getId()), CustomerChangedEvent.Change.UPDATED));
+        cache.onCustomerChanged(new CustomerChangedEvent(UUID.fromString(deleted.getId()), CustomerChangedEvent.Change.DELETED));
+
+        // Then
+        assertTrue(cache.get(UUID.fromString(updated.getId())).isEmpty());
+        assertTrue(cache.get(UUID.fromString(deleted.getId())).isEmpty());
+    }
+
+    @Test
+    void testStaleReadIsNotCached() {
+        // Given
+        CustomerResponse response = randomCustomerResponse();
+        UUID id = UUID.fromString(response.getId());
+        long generation = cache.generation();
+
+        // When the customer changes between reading and caching it
+        cache.evict(id);
+
+        // Then
+        assertTrue(cache.put(generation, response).isEmpty());
+        assertTrue(cache.get(id).isEmpty());
+    }
+
+    @Test
+    void testRestore_keeps_newer_entries_and_stops_after_a_change() {
+        // Given
+        CustomerResponse cachedByRequest = randomCustomerResponse();
+        UUID cachedId = UUID.fromString(cachedByRequest.getId());
+        CustomerResponseCache.CachedResponse current = cache.put(cache.generation(), cachedByRequest).orElseThrow();
+        UUID changedId = UUID.randomUUID();
+        long generation = cache.generation();
+
+        // When
+        boolean restoredCached = cache.restore(generation, cachedId, new CustomerResponseCache.CachedResponse(new byte[0], "\"old\""));
+        cache.evict(UUID.randomUUID());
+        boolean restoredChanged = cache.restore(generation, changedId, new CustomerResponseCache.CachedResponse(new byte[0], "\"old\""));
+
+        // Then
+        assertTrue(restoredCached);
+        assertArrayEquals(current.body(), cache.get(cachedId).orElseThrow().body());
+        assertFalse(restoredChanged);
+        assertTrue(cache.get(changedId).isEmpty());
+    }
+}
@@ -0,0 +1,164 @@
+package ad.lotfiz.assignment.customerhub.service.export;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CustomerExportIT {
+
+    private static final int CUSTOMERS = 1_200;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void seed() {
+        customerRepository.deleteAll();
+        List<CustomerEntity> customers = IntStream.range(0, CUSTOMERS).mapToObj(i -> randomCustomerEntity()).toList();
+        customerRepository.saveAll(customers);
+    }
+
+    @Test
+    void testExport_ndjson_gzip() throws Exception {
+        // Given
+        String exportId = startExport("{}");
+
+        // When
+        JsonNode export = awaitCompleted(exportId);
+        MvcResult download = mockMvc.perform(get(export.get("downloadUrl").asText()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andReturn();
+
+        // Then
+        assertEquals(CUSTOMERS, export.get("rowsWritten").asLong());
+        assertEquals(1.0, export.get("progress").asDouble());
+        byte[] file = download.getResponse().getContentAsByteArray();
+        assertEquals(export.get("fileSize").asLong(), file.length);
+        String[] lines = gunzip(file).split("\n");
+        assertEquals(CUSTOMERS, lines.length);
+        JsonNode customer = objectMapper.readTree(lines[0]);
+        CustomerEntity entity = customerRepository.findById(UUID.fromString(customer.get("id").asText())).orElseThrow();
+        assertEquals(entity.getEmail(), customer.get("email").asText());
+    }
+
+    @Test
+    void testExport_csv_uncompressed() throws Exception {
+        // Given
+        String exportId = startExport("{\"format\":\"csv\",\"compression\":\"none\"}");
+
+        // When
+        awaitCompleted(exportId);
+        MvcResult download = mockMvc.perform(get("/customers/exports/{exportId}/file", exportId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andReturn();
+
+        // Then
+        String[] lines = download.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(CUSTOMERS + 1, lines.length);
+        assertTrue(lines[0].startsWith("id,"), lines[0]);
+    }
+
+    @Test
+    void testDownload_range() throws Exception {
+        // Given
+        String exportId = startExport("{\"compression\":\"none\"}");
+        awaitCompleted(exportId);
+        byte[] file = mockMvc.perform(get("/customers/exports/{exportId}/file", exportId))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // When
+        byte[] middle = mockMvc.perform(get("/customers/exports/{exportId}/file", exportId).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/" + file.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] tail = mockMvc.perform(get("/customers/exports/{exportId}/file", exportId).header(HttpHeaders.RANGE, "bytes=-50"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get("/customers/exports/{exportId}/file", exportId).header(HttpHeaders.RANGE, "bytes=" + file.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+
+        // Then
+        assertArrayEquals(Arrays.copyOfRange(file, 100, 200), middle);
+        assertArrayEquals(Arrays.copyOfRange(file, file.length - 50, file.length), tail);
+    }
+
+    @Test
+    void testExport_unknown() throws Exception {
+        // When
+        mockMvc.perform(get("/customers/exports/{exportId}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        // Then
+        mockMvc.perform(get("/customers/exports/{exportId}/file", "not-an-export"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String startExport(String request) throws Exception {
+        MvcResult result = mockMvc.perform(post("/customers/exports").contentType(MediaType.APPLICATION_JSON).content(request))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    private JsonNode awaitCompleted(String exportId) throws Exception {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            String body = mockMvc.perform(get("/customers/exports/{exportId}", exportId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode export = objectMapper.readTree(body);
+            String exportStatus = export.get("status").asText();
+            if ("completed".equals(exportStatus)) {
+                return export;
+            }
+            assertTrue(!"failed".equals(exportStatus), body);
+            Thread.sleep(50);
+        }
+        throw new AssertionError("export " + exportId + " did not complete");
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
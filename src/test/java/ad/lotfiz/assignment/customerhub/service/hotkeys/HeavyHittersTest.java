@@ -0,0 +1,72 @@
+package ad.lotfiz.assignment.customerhub.service.hotkeys;
+
+import ad.lotfiz.assignment.customerhub.service.hotkeys.HeavyHitters.HotKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HeavyHittersTest {
+
+    @Test
+    void testSketch_never_underestimates() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key" + (i % 200));
+        }
+
+        // Then
+        for (int key = 0; key < 200; key++) {
+            assertTrue(sketch.estimate("key" + key) >= 5);
+        }
+        assertEquals(0, new CountMinSketch(4, 64).estimate("key0"));
+    }
+
+    @Test
+    void testTop_finds_the_heavy_hitters_in_a_long_tail() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(3, 4, 1024);
+        Random random = new Random(42);
+
+        // When: 3 hot keys take 30% of 100000 requests, the rest is spread over 10000 keys
+        for (int i = 0; i < 100_000; i++) {
+            if (random.nextInt(10) < 3) {
+                heavyHitters.add("hot" + random.nextInt(3));
+            } else {
+                heavyHitters.add("cold" + random.nextInt(10_000));
+            }
+        }
+
+        // Then
+        List<HotKey> top = heavyHitters.top();
+        assertEquals(3, top.size());
+        top.forEach(hotKey -> assertTrue(hotKey.key().startsWith("hot"), top::toString));
+        assertTrue(top.get(0).count() >= top.get(2).count());
+        assertTrue(top.get(2).count() > 9_000, top::toString);
+    }
+
+    @Test
+    void testDecay_halves_the_counts_and_lets_new_keys_in() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(1, 4, 1024);
+        for (int i = 0; i < 8; i++) {
+            heavyHitters.add("old");
+        }
+
+        // When
+        heavyHitters.decay();
+        heavyHitters.decay();
+        for (int i = 0; i < 3; i++) {
+            heavyHitters.add("new");
+        }
+
+        // Then
+        assertEquals(List.of(new HotKey("new", 3)), heavyHitters.top());
+    }
+}
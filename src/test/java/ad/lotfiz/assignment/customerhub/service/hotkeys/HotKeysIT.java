@@ -0,0 +1,106 @@
+package ad.lotfiz.assignment.customerhub.service.hotkeys;
+
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"customer-hub.hotkeys.top=2", "customer-hub.hotkeys.prewarm.enabled=true",
+        "customer-hub.hotkeys.decay-interval=PT1H", "customer-hub.hotkeys.prewarm.interval=PT1H",
+        "management.endpoints.web.exposure.include=hotkeys"})
+@AutoConfigureMockMvc
+public class HotKeysIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerResponseCache customerResponseCache;
+
+    @Autowired
+    private HotKeyCacheWarmer hotKeyCacheWarmer;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @BeforeEach
+    public void cleanUp() {
+        customerRepository.deleteAll();
+        // decays the counts of the other tests to zero
+        for (int i = 0; i < Long.SIZE; i++) {
+            hotKeyTracker.decay();
+        }
+    }
+
+    @Test
+    void testEndpoint_reports_the_most_read_customers_and_searched_names() throws Exception {
+        // Given
+        CustomerResponse hot = customerService.createNewCustomer(randomCustomerRequest());
+        CustomerResponse warm = customerService.createNewCustomer(randomCustomerRequest());
+        CustomerResponse cold = customerService.createNewCustomer(randomCustomerRequest());
+
+        // When
+        read(hot, 20);
+        read(warm, 10);
+        read(cold, 1);
+        mockMvc.perform(get("/customers/find").param("firstName", "Anna").param("lastName", " Smith"));
+
+        // Then
+        mockMvc.perform(get("/actuator/hotkeys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reads.length()").value(2))
+                .andExpect(jsonPath("$.reads[0].key").value(hot.getId()))
+                .andExpect(jsonPath("$.reads[0].count").value(20))
+                .andExpect(jsonPath("$.reads[1].key").value(warm.getId()))
+                .andExpect(jsonPath("$.searches[*].key").value(containsInAnyOrder("anna", "smith")));
+        mockMvc.perform(get("/actuator/hotkeys/reads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value(hot.getId()));
+        mockMvc.perform(get("/actuator/hotkeys/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPrewarm_caches_the_hot_customers() throws Exception {
+        // Given
+        CustomerResponse hot = customerService.createNewCustomer(randomCustomerRequest());
+        read(hot, 5);
+        UUID id = UUID.fromString(hot.getId());
+        customerResponseCache.evict(id);
+
+        // When
+        int cached = hotKeyCacheWarmer.prewarm();
+
+        // Then
+        assertEquals(1, cached);
+        assertTrue(customerResponseCache.get(id).isPresent());
+    }
+
+    private void read(CustomerResponse customer, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            mockMvc.perform(get("/customers/{customerId}", customer.getId())).andExpect(status().isOk());
+        }
+    }
+}
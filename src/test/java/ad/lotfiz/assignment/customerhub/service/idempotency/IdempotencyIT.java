@@ -0,0 +1,142 @@
+package ad.lotfiz.assignment.customerhub.service.idempotency;
+
+import ad.lotfiz.assignment.customerhub.model.IdempotencyRecordEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.repository.IdempotencyRecordRepository;
+import nl.customerhub.api.v1.model.CustomerRequest;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.OffsetDateTime;
+import java.util.stream.IntStream;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "customer-hub.idempotency.maximum-size=3")
+public class IdempotencyIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private DatabaseIdempotencyStore store;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void cleanUpDatabase() {
+        customerRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testRetry_returns_original_response() {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        ResponseEntity<CustomerResponse> original = post(request, "retry-key");
+        customerRepository.deleteAll();
+
+        // When
+        ResponseEntity<CustomerResponse> retried = post(request, "retry-key");
+
+        // Then
+        assertEquals(HttpStatus.CREATED, original.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertEquals(original.getBody(), retried.getBody());
+        assertEquals(original.getHeaders().getLocation(), retried.getHeaders().getLocation());
+        assertEquals(0, customerRepository.count(), "the replay does not touch the customers table");
+    }
+
+    @Test
+    void testKey_reused_for_different_request() {
+        // Given
+        post(randomCustomerRequest(), "reused-key");
+
+        // When
+        ResponseEntity<CustomerResponse> response = post(randomCustomerRequest(), "reused-key");
+
+        // Then
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals(1, customerRepository.count());
+    }
+
+    @Test
+    void testRetry_while_the_original_runs_is_a_conflict() {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        idempotencyService.reserve("running-key", request, CustomerResponse.class);
+
+        // When
+        ResponseEntity<CustomerResponse> retried = post(request, "running-key");
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, retried.getStatusCode());
+        assertEquals(0, customerRepository.count());
+    }
+
+    @Test
+    void testKey_of_a_failed_request_is_released() {
+        // Given
+        CustomerRequest request = randomCustomerRequest();
+        idempotencyService.reserve("failed-key", request, CustomerResponse.class);
+        idempotencyService.release("failed-key");
+
+        // When
+        ResponseEntity<CustomerResponse> retried = post(request, "failed-key");
+
+        // Then
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertEquals(1, customerRepository.count());
+    }
+
+    @Test
+    void testPurge_removes_expired_and_oldest_keys() {
+        // Given
+        OffsetDateTime now = OffsetDateTime.now();
+        idempotencyRecordRepository.save(record("expired", now.minusHours(2), now.minusHours(1)));
+        IntStream.range(0, 4).forEach(i -> idempotencyRecordRepository.save(record("key-" + i, now.minusMinutes(10 - i), now.plusHours(1))));
+
+        // When
+        store.purge();
+
+        // Then
+        assertEquals(3, idempotencyRecordRepository.count());
+        assertFalse(idempotencyRecordRepository.existsById("expired"));
+        assertFalse(idempotencyRecordRepository.existsById("key-0"));
+        assertTrue(idempotencyRecordRepository.existsById("key-3"));
+    }
+
+    private ResponseEntity<CustomerResponse> post(CustomerRequest request, String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", idempotencyKey);
+        return restTemplate.postForEntity("/customers", new HttpEntity<>(request, headers), CustomerResponse.class);
+    }
+
+    private static IdempotencyRecordEntity record(String key, OffsetDateTime created, OffsetDateTime expires) {
+        return IdempotencyRecordEntity.builder()
+                .idempotencyKey(key)
+                .requestHash("hash")
+                .response(new byte[]{'{', '}'})
+                .created(created)
+                .expires(expires)
+                .build();
+    }
+}
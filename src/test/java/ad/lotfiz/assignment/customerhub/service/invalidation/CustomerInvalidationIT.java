@@ -0,0 +1,109 @@
+package ad.lotfiz.assignment.customerhub.service.invalidation;
+
+import ad.lotfiz.assignment.customerhub.CustomerHubApplication;
+import ad.lotfiz.assignment.customerhub.repository.offheap.OffHeapCustomerStore;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerPageCache;
+import ad.lotfiz.assignment.customerhub.service.cache.CustomerResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.customerhub.api.v1.model.CustomerResponse;
+import nl.customerhub.api.v1.model.CustomerUpdateRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerRequest;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CustomerInvalidationIT {
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void start() {
+        first = node("offheap");
+        second = node("default");
+    }
+
+    @AfterAll
+    static void stop() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    void testUpdate_on_one_node_evicts_the_cached_response_on_the_other() {
+        // Given
+        CustomerResponse customer = first.getBean(CustomerService.class).createNewCustomer(randomCustomerRequest());
+        CustomerResponseCache firstCache = first.getBean(CustomerResponseCache.class);
+        firstCache.put(firstCache.generation(), first.getBean(CustomerService.class).fetchCustomer(customer.getId()));
+        UUID id = UUID.fromString(customer.getId());
+        assertTrue(firstCache.get(id).isPresent());
+        // the create is a remote change for the second node, applied before its counter is read
+        second.getBean(CustomerInvalidationLog.class).poll();
+        double secondApplied = applied(second);
+
+        // When
+        second.getBean(CustomerService.class).update(customer.getId(), new CustomerUpdateRequest().address("Changed"));
+
+        // Then
+        await(() -> firstCache.get(id).isEmpty());
+        await(() -> first.getBean(OffHeapCustomerStore.class).get(id).map(c -> "Changed".equals(c.getAddress())).orElse(false));
+        assertEquals("Changed", first.getBean(CustomerService.class).fetchCustomer(customer.getId()).getAddress());
+        assertTrue(first.getBean(MeterRegistry.class).get("customerhub.invalidation.lag").timer().count() > 0);
+        // a node does not apply its own changes again
+        second.getBean(CustomerInvalidationLog.class).poll();
+        assertEquals(secondApplied, applied(second));
+    }
+
+    @Test
+    void testCreate_on_one_node_bumps_the_page_version_on_the_other() {
+        // Given
+        CustomerPageCache firstPages = first.getBean(CustomerPageCache.class);
+        long version = firstPages.key("listCustomers", List.of(), 0, 10).version();
+
+        // When
+        CustomerResponse created = second.getBean(CustomerService.class).createNewCustomer(randomCustomerRequest());
+
+        // Then
+        await(() -> firstPages.key("listCustomers", List.of(), 0, 10).version() != version);
+        await(() -> first.getBean(OffHeapCustomerStore.class).get(UUID.fromString(created.getId())).isPresent());
+    }
+
+    private static ConfigurableApplicationContext node(String profile) {
+        return new SpringApplicationBuilder(CustomerHubApplication.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:invalidation;DB_CLOSE_DELAY=-1",
+                        "--customer-hub.invalidation.enabled=true",
+                        "--customer-hub.invalidation.poll-interval=PT0.1S",
+                        "--customer-hub.cache.page.enabled=true");
+    }
+
+    private static double applied(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("customerhub.invalidation.applied").counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+        throw new AssertionError("the change did not reach the other node");
+    }
+}
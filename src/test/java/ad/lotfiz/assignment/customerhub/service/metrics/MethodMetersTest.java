@@ -0,0 +1,90 @@
+package ad.lotfiz.assignment.customerhub.service.metrics;
+
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.CountedAspect;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MethodMetersTest {
+
+    @Test
+    void testCountedMethod_registers_the_counters_of_the_aspect() {
+        // Given
+        MeterRegistry annotated = new SimpleMeterRegistry();
+        Target proxy = proxy(new CountedAspect(annotated));
+        MeterRegistry direct = new SimpleMeterRegistry();
+        CountedMethod counted = new CountedMethod(direct, Target.class, "counted");
+
+        // When
+        proxy.counted(false);
+        assertThrows(IllegalStateException.class, () -> proxy.counted(true));
+        counted.record(() -> Target.call(false));
+        assertThrows(IllegalStateException.class, () -> counted.record(() -> Target.call(true)));
+
+        // Then
+        assertEquals(ids(annotated), ids(direct));
+        assertEquals(1, direct.get("method.counted").tag("result", "failure").tag("exception", "IllegalStateException").counter().count());
+        assertEquals(1, direct.get("method.counted").tag("result", "success").tag("exception", "none").counter().count());
+    }
+
+    @Test
+    void testTimedMethod_registers_the_timers_of_the_aspect() {
+        // Given
+        MeterRegistry annotated = new SimpleMeterRegistry();
+        Target proxy = proxy(new TimedAspect(annotated));
+        MeterRegistry direct = new SimpleMeterRegistry();
+        TimedMethod timed = new TimedMethod(direct, Target.class, "timed");
+
+        // When
+        proxy.timed(false);
+        assertThrows(IllegalStateException.class, () -> proxy.timed(true));
+        timed.record(() -> Target.call(false));
+        assertThrows(IllegalStateException.class, () -> timed.record(() -> Target.call(true)));
+
+        // Then
+        assertEquals(ids(annotated), ids(direct));
+        assertEquals(1, direct.get("method.timed").tag("exception", "none").timer().count());
+        assertEquals(1, direct.get("method.timed").tag("exception", "IllegalStateException").timer().count());
+    }
+
+    private static Target proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+
+    private static Set<Meter.Id> ids(MeterRegistry registry) {
+        return registry.getMeters().stream().map(Meter::getId).collect(Collectors.toSet());
+    }
+
+    static class Target {
+
+        @Counted
+        public String counted(boolean fail) {
+            return call(fail);
+        }
+
+        @Timed
+        public String timed(boolean fail) {
+            return call(fail);
+        }
+
+        private static String call(boolean fail) {
+            if (fail) {
+                throw new IllegalStateException();
+            }
+            return "done";
+        }
+    }
+}
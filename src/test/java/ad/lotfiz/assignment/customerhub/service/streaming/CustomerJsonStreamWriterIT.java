@@ -0,0 +1,116 @@
+package ad.lotfiz.assignment.customerhub.service.streaming;
+
+import ad.lotfiz.assignment.customerhub.model.CustomerEntity;
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import ad.lotfiz.assignment.customerhub.service.CustomerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static ad.lotfiz.assignment.customerhub.RandomGenerator.randomCustomerEntity;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "customer-hub.streaming.enabled=true")
+@AutoConfigureMockMvc
+public class CustomerJsonStreamWriterIT {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerJsonStreamWriter customerJsonStreamWriter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void cleanUpDatabase() {
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testWriteList_same_as_jackson_serialization() throws Exception {
+        // Given
+        CustomerEntity withoutOptionalFields = randomCustomerEntity();
+        withoutOptionalFields.setAge(null);
+        withoutOptionalFields.setAddress(null);
+        customerRepository.saveAll(List.of(randomCustomerEntity(), randomCustomerEntity(), withoutOptionalFields));
+        Pageable paging = PageRequest.of(0, 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        customerJsonStreamWriter.writeList(paging, out);
+
+        // Then
+        JsonNode expected = objectMapper.valueToTree(customerService.list(paging));
+        assertEquals(expected, objectMapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    void testWriteList_second_page() throws Exception {
+        // Given
+        customerRepository.saveAll(List.of(randomCustomerEntity(), randomCustomerEntity(), randomCustomerEntity()));
+        Pageable paging = PageRequest.of(1, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        customerJsonStreamWriter.writeList(paging, out);
+
+        // Then
+        JsonNode result = objectMapper.readTree(out.toByteArray());
+        assertEquals(objectMapper.valueToTree(customerService.list(paging)), result);
+        assertEquals(1, result.get("content").size());
+    }
+
+    @Test
+    void testWriteFindByName_same_as_jackson_serialization() throws Exception {
+        // Given
+        customerRepository.saveAll(List.of(
+                randomCustomerEntity("John", "Smith"),
+                randomCustomerEntity("Johnny", "Smithson"),
+                randomCustomerEntity("Jane", "Doe")));
+        Pageable paging = PageRequest.of(0, 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        customerJsonStreamWriter.writeFindByName("John", "Smith", paging, out);
+
+        // Then
+        JsonNode result = objectMapper.readTree(out.toByteArray());
+        assertEquals(objectMapper.valueToTree(customerService.findByName("John", "Smith", paging)), result);
+        assertEquals(2, result.get("content").size());
+    }
+
+    @Test
+    void testFindCustomer_streamed_by_interceptor() throws Exception {
+        // Given
+        customerRepository.saveAll(List.of(randomCustomerEntity("John", "Smith"), randomCustomerEntity("Jane", "Doe")));
+
+        // When
+        byte[] body = mockMvc.perform(get("/customers/find").param("firstName", "John").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode expected = objectMapper.valueToTree(customerService.findByName("John", null, PageRequest.of(0, 5)));
+        assertEquals(expected, objectMapper.readTree(body));
+    }
+}
@@ -0,0 +1,50 @@
+package ad.lotfiz.assignment.customerhub.service.warmup;
+
+import ad.lotfiz.assignment.customerhub.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"customer-hub.warmup.enabled=true", "customer-hub.warmup.iterations=300"})
+public class JitWarmUpIT {
+
+    @Autowired
+    private JitWarmUp jitWarmUp;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testWarmUp_runs_the_iterations_and_leaves_no_customers() {
+        // Given
+        long customers = customerRepository.count();
+        double listed = listed();
+
+        // When
+        JitWarmUp.Result result = jitWarmUp.warmUp();
+
+        // Then
+        assertEquals(300, result.iterations());
+        assertTrue(result.firstRound().toNanos() > 0);
+        assertTrue(result.lastRound().toNanos() > 0);
+        assertEquals(customers, customerRepository.count());
+        assertEquals(300, meterRegistry.get("customerhub.jit.warmup.iterations").gauge().value());
+        assertEquals(result.lastRound().toNanos(), meterRegistry.get("customerhub.jit.warmup.iteration.time")
+                .tag("round", "last").timeGauge().value(TimeUnit.NANOSECONDS));
+        // the warm-up is not traffic
+        assertEquals(listed, listed());
+    }
+
+    private double listed() {
+        return meterRegistry.get("method.counted").tag("method", "list").tag("result", "success").counter().count();
+    }
+}